@@ -0,0 +1,97 @@
+package model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utility.TaskDataGenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks traversing a project in priority order, and adding, finding and removing its tasks, one at a time
+// or as a batch, in a sub-project whose changes cascade to its parent
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProjectBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private List<Task> tasks;
+    private Project project;
+    private Task absent;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskDataGenerator.tasks(size);
+        project = new Project("Benchmark");
+        for (Task task : tasks) {
+            project.add(task);
+        }
+        absent = new Task("Not in the project");
+    }
+
+    @TearDown
+    public void tearDown() {
+        TaskDataGenerator.release(tasks);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Todo todo : project) {
+            blackhole.consume(todo);
+        }
+    }
+
+    // Note: tasks are removed again so that they do not accumulate listeners across invocations
+    @Benchmark
+    public Project addThenRemove() {
+        Project other = new Project("Other");
+        for (Task task : tasks) {
+            other.add(task);
+        }
+        for (Task task : tasks) {
+            other.remove(task);
+        }
+        return other;
+    }
+
+    @Benchmark
+    public Project addThenRemoveNested() {
+        Project other = nested();
+        for (Task task : tasks) {
+            other.add(task);
+        }
+        for (Task task : tasks) {
+            other.remove(task);
+        }
+        return other;
+    }
+
+    @Benchmark
+    public Project addAllThenRemoveAllNested() {
+        Project other = nested();
+        other.addAll(tasks);
+        other.removeAll(tasks);
+        return other;
+    }
+
+    @Benchmark
+    public int contains() {
+        int found = 0;
+        for (Task task : tasks) {
+            if (project.contains(task)) {
+                found++;
+            }
+        }
+        return project.contains(absent) ? -found : found;
+    }
+
+    // EFFECTS: returns an empty project, part of a parent project
+    private static Project nested() {
+        Project other = new Project("Other");
+        new Project("Parent").add(other);
+        return other;
+    }
+}
@@ -0,0 +1,66 @@
+package model;
+
+import org.openjdk.jmh.annotations.*;
+import utility.TaskDataGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks full-text search over an index of task descriptions, against a scan of every description
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchIndexBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private List<Task> tasks;
+    private SearchIndex index;
+    private String task;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskDataGenerator.tasks(size);
+        index = new SearchIndex(tasks);
+        task = "Task " + size / 2 + " ";
+    }
+
+    @TearDown
+    public void tearDown() {
+        index.retainOnly(Collections.emptyList());
+        TaskDataGenerator.release(tasks);
+    }
+
+    @Benchmark
+    public List<Task> searchOneTask() {
+        return index.search(task);
+    }
+
+    @Benchmark
+    public List<Task> searchTwoWords() {
+        return index.search("lect repo");
+    }
+
+    @Benchmark
+    public List<Task> scanOneTask() {
+        List<Task> found = new ArrayList<>();
+        for (Task t : tasks) {
+            if (t.getDescription().toLowerCase().contains(task.toLowerCase())) {
+                found.add(t);
+            }
+        }
+        return found;
+    }
+
+    // Note: includes detaching the index from the tasks, so that listeners do not accumulate
+    @Benchmark
+    public SearchIndex build() {
+        SearchIndex built = new SearchIndex(tasks);
+        built.retainOnly(Collections.emptyList());
+        return built;
+    }
+}
@@ -0,0 +1,64 @@
+package model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utility.TaskDataGenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks constructing tasks from descriptions with meta-data, and adding and removing tags
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private List<String> descriptions;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        descriptions = TaskDataGenerator.descriptions(size);
+        tasks = TaskDataGenerator.tasks(size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TaskDataGenerator.release(tasks);
+    }
+
+    // Note: includes removing the tag parsed from each description, so tags do not accumulate tasks
+    @Benchmark
+    public void construct(Blackhole blackhole) {
+        for (String description : descriptions) {
+            Task task = new Task(description);
+            for (Tag tag : task.getTags().toArray(new Tag[0])) {
+                task.removeTag(tag);
+            }
+            blackhole.consume(task);
+        }
+    }
+
+    @Benchmark
+    public void addAndRemoveTag() {
+        for (Task task : tasks) {
+            task.addTag("benchmark");
+            task.removeTag("benchmark");
+        }
+    }
+
+    @Benchmark
+    public int containsTag() {
+        int found = 0;
+        for (Task task : tasks) {
+            if (task.containsTag("tag0")) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
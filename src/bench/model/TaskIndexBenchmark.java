@@ -0,0 +1,91 @@
+package model;
+
+import org.openjdk.jmh.annotations.*;
+import utility.TaskDataGenerator;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks queries over an index of tasks, against a scan of every task for the same conditions,
+// and refiling a task when it changes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskIndexBenchmark {
+    private static final long WEEK = 7L * 24 * 60 * 60 * 1000;
+    private static final int PAGE = 50;
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private List<Task> tasks;
+    private TaskIndex index;
+    private Date from;
+    private Date to;
+    private String tag;
+    private Task changing;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskDataGenerator.tasks(size);
+        index = new TaskIndex(tasks);
+        from = tasks.stream().filter(t -> t.getDueDate() != null).findFirst().get().getDueDate().getDate();
+        to = new Date(from.getTime() + WEEK);
+        tag = TaskDataGenerator.tagName(0);
+        changing = tasks.get(size / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (Task task : tasks) {
+            index.remove(task);
+        }
+        TaskDataGenerator.release(tasks);
+    }
+
+    @Benchmark
+    public List<Task> tagAndStatus() {
+        return index.find(new TaskQuery().withTag(tag).withStatus(Status.IN_PROGRESS));
+    }
+
+    @Benchmark
+    public List<Task> tagAndStatusFirstPage() {
+        return index.find(new TaskQuery().withTag(tag).withStatus(Status.IN_PROGRESS).limit(PAGE));
+    }
+
+    @Benchmark
+    public List<Task> tagAndDueWithinAWeek() {
+        return index.find(new TaskQuery().withTag(tag).dueBetween(from, to));
+    }
+
+    @Benchmark
+    public List<Task> priorityStatusAndText() {
+        return index.find(new TaskQuery().withPriority(new Priority(1)).withStatus(Status.TODO)
+                .descriptionContains("report"));
+    }
+
+    @Benchmark
+    public List<Task> tagAndStatusByScan() {
+        return scan();
+    }
+
+    @Benchmark
+    public Task changeStatus() {
+        changing.setStatus(changing.getStatus() == Status.DONE ? Status.TODO : Status.DONE);
+        return changing;
+    }
+
+    // EFFECTS: returns the tasks having tag and status IN_PROGRESS, found by checking every task
+    private List<Task> scan() {
+        List<Task> found = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getStatus() == Status.IN_PROGRESS && task.containsTag(tag)) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,74 @@
+package model;
+
+import org.openjdk.jmh.annotations.*;
+import utility.TaskDataGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks taking a version of the task store, and updating, removing and adding a task in it (also after the
+// tasks before it moved), against copying the whole list of tasks as a point-in-time view
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskStoreBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private List<Task> tasks;
+    private TaskStore store;
+    private Task changing;
+    private Task middle;
+    private Task first;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskDataGenerator.tasks(size);
+        store = new TaskStore(tasks);
+        changing = tasks.get(size - 1);
+        middle = tasks.get(size / 2);
+        first = tasks.get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TaskDataGenerator.release(tasks);
+    }
+
+    @Benchmark
+    public TaskStore.Version version() {
+        return store.version();
+    }
+
+    @Benchmark
+    public TaskStore.Version update() {
+        store.update(changing, task -> task.setProgress(100 - task.getProgress()));
+        return store.version();
+    }
+
+    @Benchmark
+    public TaskStore.Version removeAndAdd() {
+        store.remove(changing);
+        store.add(changing);
+        return store.version();
+    }
+
+    // Note: removes the first task before the update, so that every task after it has moved back one position,
+    //       then adds it back in front
+    @Benchmark
+    public TaskStore.Version updateAfterMove() {
+        store.remove(first);
+        store.update(middle, task -> task.setProgress(100 - task.getProgress()));
+        store.addAll(0, Collections.singletonList(first));
+        return store.version();
+    }
+
+    @Benchmark
+    public List<Task> copyList() {
+        return new ArrayList<>(store.snapshot());
+    }
+}
@@ -0,0 +1,34 @@
+package model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks publishing a change of a task to the projects listening to it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TodoListenerBenchmark {
+    @Param({"1", "4", "16"})
+    private int listeners;
+    private Task task;
+    private int progress;
+
+    @Setup
+    public void setUp() {
+        task = new Task("Listened to");
+        for (int i = 0; i < listeners; i++) {
+            new Project("Project " + i).add(task);
+        }
+    }
+
+    @Benchmark
+    public Task publish() {
+        progress = progress == 100 ? 0 : progress + 1;
+        task.setProgress(progress);
+        return task;
+    }
+}
@@ -0,0 +1,34 @@
+package parsers;
+
+import model.Task;
+import org.openjdk.jmh.annotations.*;
+import utility.TaskDataGenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks parsing the content of tasks.json
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskParserBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        json = TaskDataGenerator.json(size);
+    }
+
+    // Note: includes detaching the parsed tasks from their tags (see TaskDataGenerator.release)
+    @Benchmark
+    public List<Task> parse() {
+        List<Task> tasks = new TaskParser().parse(json);
+        TaskDataGenerator.release(tasks);
+        return tasks;
+    }
+}
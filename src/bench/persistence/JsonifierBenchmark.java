@@ -0,0 +1,42 @@
+package persistence;
+
+import model.Task;
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.*;
+import utility.TaskDataGenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks converting a list of tasks to JSON
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JsonifierBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskDataGenerator.tasks(size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TaskDataGenerator.release(tasks);
+    }
+
+    @Benchmark
+    public JSONArray taskListToJson() {
+        return Jsonifier.taskListToJson(tasks);
+    }
+
+    @Benchmark
+    public String taskListToJsonString() {
+        return Jsonifier.taskListToJson(tasks).toString();
+    }
+}
@@ -0,0 +1,68 @@
+package ui;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.Status;
+import model.Task;
+import org.openjdk.jmh.annotations.*;
+import utility.TaskDataGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks moving a task between the groups of the status view as its status changes, and editing a task
+// in place, against grouping every task from scratch
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskGroupsBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private ObservableList<Task> tasks;
+    private TaskGroups groups;
+    private Task changing;
+    private int changingIndex;
+
+    @Setup
+    public void setUp() {
+        tasks = FXCollections.observableArrayList(TaskDataGenerator.tasks(size));
+        groups = TaskGroups.byStatus(tasks);
+        changingIndex = size / 2;
+        changing = tasks.get(changingIndex);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TaskDataGenerator.release(tasks);
+    }
+
+    @Benchmark
+    public int changeStatus() {
+        Status status = changing.getStatus();
+        changing.setStatus(status == Status.DONE ? Status.TODO : Status.DONE);
+        changing.setStatus(status);
+        return groups.getGroup(status.ordinal()).size();
+    }
+
+    @Benchmark
+    public int setAgainAfterEdit() {
+        tasks.set(changingIndex, changing);
+        return groups.getGroup(changing.getStatus().ordinal()).size();
+    }
+
+    @Benchmark
+    public List<List<Task>> groupFromScratch() {
+        List<List<Task>> regrouped = new ArrayList<>();
+        for (int i = 0; i < Status.values().length; i++) {
+            regrouped.add(new ArrayList<>());
+        }
+        for (Task task : tasks) {
+            regrouped.get(task.getStatus().ordinal()).add(task);
+        }
+        return regrouped;
+    }
+}
@@ -0,0 +1,75 @@
+package utility;
+
+import model.Task;
+import org.openjdk.jmh.annotations.*;
+import parsers.TaskReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks writing and reading a tasks.json snapshot, against the binary snapshot format; uses temporary files
+// rather than jsonDataFile
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JsonFileIOBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private List<Task> tasks;
+    private File file;
+    private File binaryFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        tasks = TaskDataGenerator.tasks(size);
+        file = File.createTempFile("tasks", ".json");
+        JsonFileIO.writeSnapshot(file, tasks);
+        binaryFile = File.createTempFile("tasks", ".bin");
+        BinaryTaskFile.write(binaryFile, tasks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TaskDataGenerator.release(tasks);
+        file.delete();
+        binaryFile.delete();
+    }
+
+    // Note: includes forcing the file to disk, as JsonFileIO.write does
+    @Benchmark
+    public long write() throws IOException {
+        return JsonFileIO.writeSnapshot(file, tasks);
+    }
+
+    // Note: includes detaching the tasks read from their tags (see TaskDataGenerator.release)
+    @Benchmark
+    public List<Task> read() throws IOException {
+        List<Task> read = new ArrayList<>(size);
+        try (TaskReader reader = JsonFileIO.openReader(new FileInputStream(file))) {
+            reader.forEachRemaining(read::add);
+        }
+        TaskDataGenerator.release(read);
+        return read;
+    }
+
+    // Note: includes forcing the file to disk, as write does
+    @Benchmark
+    public long writeBinary() throws IOException {
+        return BinaryTaskFile.write(binaryFile, tasks);
+    }
+
+    // Note: includes detaching the tasks read from their tags, as read does
+    @Benchmark
+    public List<Task> readBinary() throws IOException {
+        List<Task> read = BinaryTaskFile.read(binaryFile, null);
+        TaskDataGenerator.release(read);
+        return read;
+    }
+}
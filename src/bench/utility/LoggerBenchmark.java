@@ -0,0 +1,50 @@
+package utility;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks the cost of logging to the caller: a message at a disabled level, and an enabled one (written by
+// the logging thread, to no console), against formatting the message and printing it on the calling thread
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoggerBenchmark {
+    private PrintStream discard;
+    private int count;
+
+    @Setup
+    public void setUp() {
+        Logger.setConsole(false);
+        Logger.setLevel(Logger.Level.INFO);
+        discard = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+    }
+
+    @Benchmark
+    public void disabledLevel() {
+        Logger.debug("LoggerBenchmark", "Saved %d tasks", count++);
+    }
+
+    @Benchmark
+    public void enabledLevel() {
+        Logger.info("LoggerBenchmark", "Saved %d tasks", count++);
+    }
+
+    @Benchmark
+    public void printOnCaller() {
+        discard.println("LoggerBenchmark : " + String.format("Saved %d tasks", count++));
+    }
+}
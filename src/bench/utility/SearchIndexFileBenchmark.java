@@ -0,0 +1,60 @@
+package utility;
+
+import model.SearchIndex;
+import model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks reading a saved search index against rebuilding it from the descriptions of the tasks;
+// uses a temporary file rather than searchIndexFile
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchIndexFileBenchmark {
+    private static final long CHECKSUM = 42;
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private List<Task> tasks;
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        tasks = TaskDataGenerator.tasks(size);
+        file = File.createTempFile("tasks", ".idx");
+        SearchIndexFile.write(file, CHECKSUM, tasks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TaskDataGenerator.release(tasks);
+        file.delete();
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        SearchIndexFile.write(file, CHECKSUM, tasks);
+    }
+
+    // Note: both include detaching the index from the tasks, so that listeners do not accumulate
+    @Benchmark
+    public SearchIndex read() {
+        SearchIndex index = SearchIndexFile.read(file, CHECKSUM, tasks);
+        index.retainOnly(Collections.emptyList());
+        return index;
+    }
+
+    @Benchmark
+    public SearchIndex rebuild() {
+        SearchIndex index = new SearchIndex(tasks);
+        index.retainOnly(Collections.emptyList());
+        return index;
+    }
+}
@@ -0,0 +1,105 @@
+package utility;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.Tag;
+import model.Task;
+import persistence.Jsonifier;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+// Generates synthetic tasks for benchmarks. The same size always yields the same tasks: descriptions, tags,
+// due dates, priorities and statuses are drawn from a fixed seed, and due dates are offsets from a fixed instant.
+public class TaskDataGenerator {
+    public static final long SEED = 210L;
+    public static final int TAG_COUNT = 64;
+    private static final long BASE_DATE = 1546300800000L;    // 2019-01-01T00:00:00Z
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final String[] WORDS = {"read", "write", "review", "email", "call", "plan", "fix", "test",
+        "lecture", "notes", "report", "milk", "groceries", "project", "meeting", "draft"};
+    private static final String[] META_DATA = {"important", "urgent", "today", "tomorrow", "to do", "up next",
+        "in progress", "done"};
+    private static final Status[] STATUSES = Status.values();
+
+    private TaskDataGenerator() {
+    }
+
+    // EFFECTS: returns size tasks, each with 0 to 3 of TAG_COUNT tags; about a third have no due date
+    // Note: the tasks are registered with their (interned) tags; pass them to release when done
+    public static List<Task> tasks(int size) {
+        Random random = new Random(SEED);
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task(words(random, i));
+            int tags = random.nextInt(4);
+            for (int t = 0; t < tags; t++) {
+                task.addTag(tagName(random.nextInt(TAG_COUNT)));
+            }
+            int days = random.nextInt(90) - 30;
+            task.setDueDate(days < 0 ? null : new DueDate(new Date(BASE_DATE + days * DAY)));
+            task.setPriority(new Priority(1 + random.nextInt(4)));
+            task.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            task.setProgress(random.nextInt(101));
+            task.setEstimatedTimeToComplete(random.nextInt(20));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns size task descriptions with meta-data (tags, priority, status, due date) to be parsed
+    //          by the Task constructor
+    public static List<String> descriptions(int size) {
+        Random random = new Random(SEED);
+        List<String> descriptions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StringBuilder description = new StringBuilder(words(random, i)).append(" ## ");
+            description.append(tagName(random.nextInt(TAG_COUNT)));
+            int metaData = random.nextInt(3);
+            for (int m = 0; m < metaData; m++) {
+                description.append("; ").append(META_DATA[random.nextInt(META_DATA.length)]);
+            }
+            descriptions.add(description.toString());
+        }
+        return descriptions;
+    }
+
+    // EFFECTS: returns the tasks(size) as a JSON array, as stored in tasks.json
+    public static String json(int size) {
+        List<Task> tasks = tasks(size);
+        String json = Jsonifier.taskListToJson(tasks).toString();
+        release(tasks);
+        return json;
+    }
+
+    // MODIFIES: tasks, the tags of tasks
+    // EFFECTS: removes every tag from tasks, so that the interned tags no longer refer to them
+    // Note: interned tags live as long as the program; without this, tasks created on every benchmark
+    //       invocation would accumulate in them
+    public static void release(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            for (Tag tag : new ArrayList<>(task.getTags())) {
+                task.removeTag(tag);
+            }
+        }
+    }
+
+    // EFFECTS: returns the name of the tag with the given number
+    public static String tagName(int number) {
+        return "tag" + number;
+    }
+
+    // EFFECTS: returns a description of two to five words for task number i
+    private static String words(Random random, int i) {
+        StringBuilder words = new StringBuilder("Task ").append(i);
+        int count = 2 + random.nextInt(4);
+        for (int w = 0; w < count; w++) {
+            words.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return words.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package utility;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks scheduling and cancelling one deadline among size pending ones, in a timing wheel and in a
+// priority queue, and advancing the wheel by a day
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TimingWheelBenchmark {
+    private static final long START = 1546300800000L;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long HORIZON = 90 * DAY;
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+    private TimingWheel<Long> wheel;
+    private PriorityQueue<Long> queue;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(TaskDataGenerator.SEED);
+        wheel = new TimingWheel<>(ReminderService.TICK_MILLIS, START);
+        queue = new PriorityQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            long deadline = START + (long) (random.nextDouble() * HORIZON);
+            wheel.schedule(deadline, deadline);
+            queue.add(deadline);
+        }
+    }
+
+    @Benchmark
+    public boolean wheelScheduleThenCancel() {
+        long deadline = START + (long) (random.nextDouble() * HORIZON);
+        return wheel.cancel(wheel.schedule(deadline, deadline));
+    }
+
+    @Benchmark
+    public boolean queueScheduleThenCancel() {
+        Long deadline = START + (long) (random.nextDouble() * HORIZON);
+        queue.add(deadline);
+        return queue.remove(deadline);
+    }
+
+    // Note: a fresh wheel is filled on every invocation, so this includes scheduling size deadlines
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int wheelAdvanceOneDay() {
+        TimingWheel<Long> fresh = new TimingWheel<>(ReminderService.TICK_MILLIS, START);
+        Random deadlines = new Random(TaskDataGenerator.SEED);
+        for (int i = 0; i < size; i++) {
+            long deadline = START + (long) (deadlines.nextDouble() * HORIZON);
+            fresh.schedule(deadline, deadline);
+        }
+        int[] expired = new int[1];
+        fresh.advance(START + DAY, deadline -> expired[0]++);
+        return expired[0];
+    }
+}
@@ -1,12 +1,17 @@
 import model.*;
 import utility.JsonFileIO;
+import utility.Metrics;
+import utility.ReminderService;
 
 import java.io.IOException;
 import java.util.*;
 
 // A simple "To Do" app
 public class ConsoleToDoApp {
-    private static List<Task> todo;
+    private static TaskStore todo;
+    private static TaskIndex index;
+    private static SearchIndex search;
+    private static ReminderService reminders;
     private static Scanner input;
     private static String userInput;
     private static boolean exit = false;
@@ -14,7 +19,11 @@ public class ConsoleToDoApp {
     public static void main(String[] args) {
         input = new Scanner(System.in);
         try {
-            todo = JsonFileIO.read();
+            todo = new TaskStore(JsonFileIO.read());
+            index = new TaskIndex(todo.snapshot());
+            search = JsonFileIO.getSearchIndex();
+            startReminders();
+            todo.addListener(ConsoleToDoApp::taskAdded);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -33,14 +42,30 @@ public class ConsoleToDoApp {
                 break;
             case 'D': displayTaskDetails();
                 break;
-            case 'Q': exit = true;
+            case 'S': searchTasks();
+                break;
+            case 'F': filterTasks();
+                break;
+            case 'M': displayMetrics();
+                break;
+            case 'Q': quit();
                 break;
             default: System.out.println("Invalid input!");
         }
     }
     
+    private static void quit() {
+        exit = true;
+        reminders.stop();
+        try {
+            JsonFileIO.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
     private static void displayTaskDetails() {
-        for (Task task: todo) {
+        for (Task task: todo.version().getFrozenTasks()) {
             System.out.println(task);
         }
         pressEnterToContinue();
@@ -54,14 +79,102 @@ public class ConsoleToDoApp {
     private static void addNewTask() {
         if (getDescriptionForTask()) {
             todo.add(new Task(userInput));
-            try {
-                JsonFileIO.write(todo);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        }
+    }
+    
+    private static void taskAdded(TaskStore.Change change) {
+        if (change.getKind() != TaskStore.Kind.ADDED) {
+            return;
+        }
+        try {
+            for (int i = 0; i < change.getTasks().size(); i++) {
+                Task task = change.getTasks().get(i);
+                index.add(task);
+                search.add(task);
+                reminders.add(task);
+                JsonFileIO.logAdded(change.getSnapshot(), change.getIndex() + i);
             }
+            JsonFileIO.sync();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
     
+    private static void startReminders() {
+        reminders = new ReminderService(new ReminderService.Listener() {
+            @Override
+            public void taskDueSoon(Task task) {
+                System.out.println("\nReminder: \"" + task.getDescription().trim() + "\" is due within the hour.");
+            }
+            
+            @Override
+            public void taskOverdue(Task task) {
+                System.out.println("\nReminder: \"" + task.getDescription().trim() + "\" is now overdue.");
+            }
+        }, ReminderService.DEFAULT_LEAD_MILLIS);
+        for (Task task : todo.snapshot()) {
+            reminders.add(task);
+        }
+        reminders.start();
+    }
+    
+    private static void searchTasks() {
+        System.out.println("Enter words to search for (or the beginning of words):");
+        System.out.print("> ");
+        List<Task> found = search.search(input.nextLine());
+        if (found.isEmpty()) {
+            System.out.println("No task matches.");
+        } else {
+            displayTasks(found);
+        }
+        pressEnterToContinue();
+    }
+    
+    private static void filterTasks() {
+        System.out.println("Enter a tag to filter by (or nothing for any tag):");
+        System.out.print("> ");
+        String tag = input.nextLine().trim();
+        System.out.println("Enter a status to filter by: to do, up next, in progress, done (or nothing for any):");
+        System.out.print("> ");
+        String status = input.nextLine().trim();
+        TaskQuery query = new TaskQuery();
+        if (!tag.isEmpty()) {
+            query.withTag(tag);
+        }
+        if (!status.isEmpty()) {
+            Status wanted = statusNamed(status);
+            if (wanted == null) {
+                System.out.println("Unknown status: " + status);
+                pressEnterToContinue();
+                return;
+            }
+            query.withStatus(wanted);
+        }
+        List<Task> found = index.find(query);
+        if (found.isEmpty()) {
+            System.out.println("No task matches.");
+        } else {
+            displayTasks(found);
+        }
+        pressEnterToContinue();
+    }
+    
+    private static Status statusNamed(String name) {
+        String wanted = name.toUpperCase(Locale.ROOT).replace(" ", "");
+        for (Status status : Status.values()) {
+            if (status.name().replace("_", "").equals(wanted)) {
+                return status;
+            }
+        }
+        return null;
+    }
+    
+    private static void displayMetrics() {
+        System.out.println("Metrics:");
+        System.out.print(Metrics.snapshot());
+        pressEnterToContinue();
+    }
+    
     private static boolean getDescriptionForTask() {
         System.out.println("Enter task description:");
         System.out.print("> ");
@@ -98,6 +211,9 @@ public class ConsoleToDoApp {
         System.out.println("==============================");
         System.out.println("\tMy Simple ToDo App");
         System.out.println("------------------------------");
+        if (reminders.getOverdueCount() > 0) {
+            System.out.println("You have " + reminders.getOverdueCount() + " overdue task(s).");
+        }
         displayPendingTasks();
         displayMenu();
     }
@@ -106,15 +222,19 @@ public class ConsoleToDoApp {
         System.out.println("You can ...");
         System.out.println("\tEnter A to add a new task;");
         System.out.println("\tEnter D to show tasks' details;");
+        System.out.println("\tEnter S to search tasks;");
+        System.out.println("\tEnter F to filter tasks by tag and status;");
+        System.out.println("\tEnter M to show metrics;");
         System.out.println("\tEnter Q to quit.");
         System.out.print("> ");
     }
     
     private static void displayPendingTasks() {
-        if (todo.isEmpty()) {
+        List<Task> tasks = todo.snapshot();
+        if (tasks.isEmpty()) {
             System.out.println("Wow! you have no pending tasks.");
         } else {
-            displayTasks(todo);
+            displayTasks(tasks);
         }
         System.out.println("------------------------------");
     }
@@ -23,6 +23,10 @@ public class AddButtonController {
     public void onNewTask() {
         Logger.log("AddButtonController", "Add new task.");
         closeNodeList();
+        if (!PomoTodoApp.isLoaded()) {
+            Logger.log("AddButtonController", "Tasks are still loading; try again once they are loaded.");
+            return;
+        }
         PomoTodoApp.setScene(new AddTask());
     }
     
@@ -4,13 +4,9 @@ import com.jfoenix.controls.JFXButton;
 import com.jfoenix.controls.JFXTextArea;
 import javafx.fxml.FXML;
 import model.Task;
-import ui.ListView;
 import ui.PomoTodoApp;
-import utility.JsonFileIO;
 import utility.Logger;
 
-import java.io.IOException;
-
 // Controller class for AddTask UI
 public class AddTaskController {
     @FXML
@@ -22,21 +18,16 @@ public class AddTaskController {
     private Task task;
     
     // EFFECTS: try to create a new task from the given description
-    //          add the new task to the list of tasks in PomoTodoApp
+    //          add the new task to the store of tasks in PomoTodoApp
     //          return to the list view UI
     @FXML
     public void saveTask() {
-        Logger.log("AddTaskController", "Add new Task with description " + description.getText());
+        Logger.info("AddTaskController", "Add new Task with description %s", description.getText());
         try {
             Task task = new Task(description.getText());
-            PomoTodoApp.getTasks().add(task);
-            try {
-                JsonFileIO.write(PomoTodoApp.getTasks());
-            } catch (IOException e) {
-                System.out.println(e.getMessage());
-            }
+            PomoTodoApp.getStore().add(task);
         } catch (RuntimeException e) {
-            Logger.log("AddTaskController", "Failed to create a new task from description " + description.getText());
+            Logger.warn("AddTaskController", "Failed to create a new task from description %s", description.getText());
         } finally {
             returnToListView();
         }
@@ -52,6 +43,6 @@ public class AddTaskController {
     // EFFECTS: return to the list view UI
     private void returnToListView() {
         Logger.log("AddTaskController", "Return to the list view UI.");
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
+        PomoTodoApp.showListView();
     }
 }
@@ -6,15 +6,13 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import model.DueDate;
+import model.Priority;
 import model.Status;
 import model.Tag;
 import model.Task;
-import ui.ListView;
 import ui.PomoTodoApp;
-import utility.JsonFileIO;
 import utility.Logger;
 
-import java.io.IOException;
 import java.net.URL;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -59,7 +57,7 @@ public class EditTaskController implements Initializable {
     // REQUIRES: task != null
     // EFFECTS: loads the UI
     private void load() {
-        Logger.log("EditTaskController", "Load UI");
+        Logger.debug("EditTaskController", "Load UI");
         displayDescription();
         displayDueDate();
         displayStatus();
@@ -121,26 +119,25 @@ public class EditTaskController implements Initializable {
     
     // REQUIRES: task != null
     // MODIFIES: this
-    // EFFECTS: save the updates on UI to task
+    // EFFECTS: save the updates on UI to task, as a single update of the store of tasks
     @FXML
     public void saveTask() {
-        saveDescription();
-        saveDueDate();
-        saveStatus();
-        savePriority();
-        saveTags();
-        try {
-            JsonFileIO.write(PomoTodoApp.getTasks());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        PomoTodoApp.getStore().update(task, edited -> {
+            saveDescription();
+            saveDueDate();
+            saveStatus();
+            savePriority();
+            saveTags();
+        });
         cancelEditTask();
-        Logger.log("EditTaskController", "Save task:\n" + task);
+        if (Logger.isEnabled(Logger.Level.DEBUG)) {
+            Logger.debug("EditTaskController", "Save task:%n%s", task.toString());
+        }
     }
     
     // REQUIRES: task != null
     private void saveDescription() {
-        Logger.log("EditTaskController", "Save description");
+        Logger.debug("EditTaskController", "Save description");
         task.setDescription(description.getText());
     }
     
@@ -156,22 +153,22 @@ public class EditTaskController implements Initializable {
             date = null;
         }
         if (date == null) {
-            Logger.log("EditTaskController", "No due date is given");
+            Logger.debug("EditTaskController", "No due date is given");
             task.setDueDate(Task.NO_DUE_DATE);
         } else {
-            Logger.log("EditTaskController", "Save due date");
+            Logger.debug("EditTaskController", "Save due date");
             task.setDueDate(new DueDate(date));
         }
     }
     
     // REQUIRES: task != null
     private void saveTags() {
-        Logger.log("EditTaskController", "Delete the tags in task");
+        Logger.debug("EditTaskController", "Delete the tags in task");
         List<Tag> tagsToBeRemoved = new ArrayList<>(task.getTags());
         for (Tag t : tagsToBeRemoved) {
             task.removeTag(t);
         }
-        Logger.log("EditTaskController", "Save the tags to task");
+        Logger.debug("EditTaskController", "Save the tags to task");
         ObservableList<String> chips = tags.getChips();
         for (String name : chips) {
             task.addTag(name);
@@ -180,21 +177,23 @@ public class EditTaskController implements Initializable {
     
     // REQUIRES: task != null
     private void saveStatus() {
-        Logger.log("EditTaskController", "Save status");
+        Logger.debug("EditTaskController", "Save status");
         task.setStatus((Status) statusComboBox.getValue());
     }
     
     // REQUIRES: task != null
     private void savePriority() {
-        Logger.log("EditTaskController", "Save priority");
-        task.getPriority().setImportant(isImportantBox.isSelected());
-        task.getPriority().setUrgent(isUrgentBox.isSelected());
+        Logger.debug("EditTaskController", "Save priority");
+        Priority priority = new Priority();
+        priority.setImportant(isImportantBox.isSelected());
+        priority.setUrgent(isUrgentBox.isSelected());
+        task.setPriority(priority);
     }
     
     @FXML
     public void cancelEditTask() {
         Logger.log("EditTaskController", "Edit Task cancelled.");
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
+        PomoTodoApp.showListView();
     }
     
     @Override
@@ -0,0 +1,39 @@
+package controller;
+
+import com.jfoenix.controls.JFXListView;
+import javafx.beans.binding.Bindings;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.Accordion;
+import javafx.scene.control.TitledPane;
+import model.Task;
+import ui.TaskGroups;
+import ui.TodobarCell;
+
+// Controller class for GroupedView UI
+public class GroupedViewController {
+    @FXML
+    private Accordion groups;
+    
+    // REQUIRES: titles has one title per group of taskGroups
+    // EFFECTS: shows each group of taskGroups in a pane titled with its title and number of tasks, one Todobar
+    //          per visible row; rows are added, removed and refreshed as the group changes. The first group
+    //          with tasks is expanded.
+    public void setData(TaskGroups taskGroups, String[] titles) {
+        TitledPane expanded = null;
+        for (int i = 0; i < taskGroups.getGroupCount(); i++) {
+            ObservableList<Task> group = taskGroups.getGroup(i);
+            JFXListView<Task> list = new JFXListView<>();
+            list.setCellFactory(listView -> new TodobarCell());
+            list.setItems(group);
+            TitledPane pane = new TitledPane();
+            pane.textProperty().bind(Bindings.size(group).asString(titles[i] + " (%d)"));
+            pane.setContent(list);
+            groups.getPanes().add(pane);
+            if (expanded == null && !group.isEmpty()) {
+                expanded = pane;
+            }
+        }
+        groups.setExpandedPane(expanded == null ? groups.getPanes().get(0) : expanded);
+    }
+}
@@ -1,22 +1,25 @@
 package controller;
 
+import com.jfoenix.controls.JFXListView;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.layout.VBox;
 import model.Task;
-import ui.Todobar;
-
-import java.util.List;
+import ui.TodobarCell;
+import utility.Metrics;
 
 // Controller class for ListView UI
 public class ListViewController {
+    private static final Metrics.Histogram setDataTimes = Metrics.histogram("listView.setData");
+
     @FXML
-    private VBox tasks;
+    private JFXListView<Task> tasks;
     
-    // EFFECTS: adds Todobar UI to ListView UI for each task
-    public void setData(List<Task> tasks) {
-        for (Task t : tasks) {
-            Todobar todobar = new Todobar(t);
-            this.tasks.getChildren().add(todobar);
-        }
+    // EFFECTS: shows tasks in the ListView UI, one Todobar per visible row;
+    //          rows are added, removed and refreshed as tasks changes
+    public void setData(ObservableList<Task> tasks) {
+        long start = System.nanoTime();
+        this.tasks.setCellFactory(listView -> new TodobarCell());
+        this.tasks.setItems(tasks);
+        setDataTimes.recordSince(start);
     }
-}
\ No newline at end of file
+}
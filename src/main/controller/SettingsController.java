@@ -0,0 +1,52 @@
+package controller;
+
+import com.jfoenix.controls.JFXCheckBox;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.TextArea;
+import ui.PomoTodoApp;
+import utility.Logger;
+import utility.Metrics;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+
+// Controller class for Settings UI
+public class SettingsController implements Initializable {
+    @FXML
+    private TextArea metricsArea;
+    @FXML
+    private JFXCheckBox exportBox;
+    
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        exportBox.setText(String.format("Export metrics to %s every %d s", Metrics.DEFAULT_EXPORT_FILE.getPath(),
+                Metrics.DEFAULT_EXPORT_PERIOD_MILLIS / 1000));
+        exportBox.setSelected(Metrics.isExporting());
+        refresh();
+    }
+    
+    // EFFECTS: shows a new snapshot of the metrics
+    @FXML
+    private void refresh() {
+        metricsArea.setText(Metrics.snapshot());
+    }
+    
+    // EFFECTS: starts or stops exporting snapshots of the metrics, as the box is checked or not
+    @FXML
+    private void toggleExport() {
+        if (exportBox.isSelected()) {
+            Logger.info("SettingsController", "Export metrics to %s", Metrics.DEFAULT_EXPORT_FILE.getPath());
+            Metrics.startExport(Metrics.DEFAULT_EXPORT_FILE, Metrics.DEFAULT_EXPORT_PERIOD_MILLIS);
+        } else {
+            Logger.info("SettingsController", "Stop exporting metrics");
+            Metrics.stopExport();
+        }
+    }
+    
+    // EFFECTS: returns to the list view
+    @FXML
+    private void back() {
+        PomoTodoApp.showListView();
+    }
+}
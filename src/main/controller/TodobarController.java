@@ -14,22 +14,30 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
 import model.Task;
 import ui.EditTask;
-import ui.ListView;
 import ui.PomoTodoApp;
-import utility.JsonFileIO;
 import utility.Logger;
+import utility.PomodoroEngine;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.util.ResourceBundle;
+import java.util.*;
 
 // Controller class for Todobar UI
+// The options and actions pop ups are shared by every Todobar: they are loaded when first shown,
+// and act on the task of the Todobar they were last shown from
+// Todobars are registered by the task they show, so that those showing a running Pomodoro can be refreshed as it
+// ticks; a Todobar leaves the registry when its row shows another task or none, and is only held weakly in it,
+// so the Todobars of list views that are discarded do not stay registered
 public class TodobarController implements Initializable {
     private static final String todoOptionsPopUpFXML = "resources/fxml/TodoOptionsPopUp.fxml";
     private static final String todoActionsPopUpFXML = "resources/fxml/TodoActionsPopUp.fxml";
-    private File todoOptionsPopUpFxmlFile = new File(todoOptionsPopUpFXML);
-    private File todoActionsPopUpFxmlFile = new File(todoActionsPopUpFXML);
+    private static File todoOptionsPopUpFxmlFile = new File(todoOptionsPopUpFXML);
+    private static File todoActionsPopUpFxmlFile = new File(todoActionsPopUpFXML);
+    private static JFXPopup optionsPopUp;
+    private static JFXPopup actionsPopUp;
+    private static TodobarController activeTodobar;
+    private static Map<Task, Set<TodobarController>> todobarsByTask = new IdentityHashMap<>();
 
     @FXML
     private Label descriptionLabel;
@@ -44,54 +52,110 @@ public class TodobarController implements Initializable {
 
     private Task task;
 
-    private JFXPopup optionsPopUp;
-    private JFXPopup actionsPopUp;
-
     // REQUIRES: task != null
     // MODIFIES: this
     // EFFECTS: sets the task in this Todobar
-    //          updates the Todobar UI label to task's description
+    //          updates the Todobar UI label to task's description, and the time left of its Pomodoro, if any
     public void setTask(Task task) {
+        unregister();
         this.task = task;
-        descriptionLabel.setText(task.getDescription());
+        todobarsByTask.computeIfAbsent(task, t -> Collections.newSetFromMap(new WeakHashMap<>())).add(this);
+        showPomodoro(PomoTodoApp.getPomodoroEngine().get(task));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the task from this Todobar, which is then no longer refreshed
+    public void clearTask() {
+        unregister();
+        task = null;
+    }
+
+    // REQUIRES: called on the JavaFX application thread
+    // MODIFIES: this
+    // EFFECTS: updates the label of every Todobar showing task to the time left of its Pomodoro, if any
+    public static void refreshPomodoro(Task task) {
+        Set<TodobarController> todobars = todobarsByTask.get(task);
+        if (todobars == null) {
+            return;
+        }
+        PomodoroEngine.Pomodoro pomodoro = PomoTodoApp.getPomodoroEngine().get(task);
+        for (TodobarController todobar : todobars) {
+            todobar.showPomodoro(pomodoro);
+        }
+        if (todobars.isEmpty()) {
+            todobarsByTask.remove(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes this Todobar from the Todobars showing its task, if any
+    private void unregister() {
+        Set<TodobarController> todobars = task == null ? null : todobarsByTask.get(task);
+        if (todobars != null) {
+            todobars.remove(this);
+            if (todobars.isEmpty()) {
+                todobarsByTask.remove(task);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the label to the task's description, followed by the phase and time left of pomodoro
+    //          unless it is null
+    private void showPomodoro(PomodoroEngine.Pomodoro pomodoro) {
+        PomodoroEngine.Phase phase = pomodoro == null ? null : pomodoro.getPhase();
+        if (phase == null) {
+            descriptionLabel.setText(task.getDescription());
+        } else {
+            long seconds = (pomodoro.getRemainingMillis() + 999) / 1000;
+            descriptionLabel.setText(String.format("%s  [%s %d:%02d]", task.getDescription(),
+                    phase == PomodoroEngine.Phase.WORK ? "work" : "break", seconds / 60, seconds % 60));
+        }
     }
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        loadOptionsPopUp();
         loadOptionsPopUpActionListener();
-        loadActionsPopUp();
         loadActionsPopUpActionListener();
     }
 
-    // EFFECTS: load options pop up (edit, delete)
-    private void loadOptionsPopUp() {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(todoOptionsPopUpFxmlFile.toURI().toURL());
-            fxmlLoader.setController(new TodobarOptionsPopUpController());
-            optionsPopUp = new JFXPopup(fxmlLoader.load());
-        } catch (IOException exception) {
-            throw new RuntimeException(exception);
+    // MODIFIES: this
+    // EFFECTS: returns the options pop up (edit, delete), loading it on first use
+    private static JFXPopup getOptionsPopUp() {
+        if (optionsPopUp == null) {
+            optionsPopUp = loadPopUp(todoOptionsPopUpFxmlFile, new TodobarOptionsPopUpController());
+        }
+        return optionsPopUp;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the action selector pop up (to do, up next, in progress, done, pomodoro),
+    //          loading it on first use
+    private static JFXPopup getActionsPopUp() {
+        if (actionsPopUp == null) {
+            actionsPopUp = loadPopUp(todoActionsPopUpFxmlFile, new TodobarActionsPopUpController());
         }
+        return actionsPopUp;
     }
 
-    // EFFECTS: load action selector pop up (to do, up next, in progress, done, pomodoro)
-    private void loadActionsPopUp() {
+    // EFFECTS: loads a pop up from fxmlFile with the given controller
+    private static JFXPopup loadPopUp(File fxmlFile, Object controller) {
         try {
-            FXMLLoader fxmlLoader = new FXMLLoader(todoActionsPopUpFxmlFile.toURI().toURL());
-            fxmlLoader.setController(new TodobarActionsPopUpController());
-            actionsPopUp = new JFXPopup(fxmlLoader.load());
+            FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
+            fxmlLoader.setController(controller);
+            return new JFXPopup(fxmlLoader.load());
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
     }
 
-    // EFFECTS: show action selector pop up when its icon is clicked
+    // EFFECTS: show action selector pop up for this Todobar when its icon is clicked
     private void loadActionsPopUpActionListener() {
         todoActionsPopUpBurger.setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent e) {
-                actionsPopUp.show(todoActionsPopUpBurger,
+                activeTodobar = TodobarController.this;
+                getActionsPopUp().show(todoActionsPopUpBurger,
                         JFXPopup.PopupVPosition.TOP,
                         JFXPopup.PopupHPosition.LEFT,
                         12,
@@ -100,12 +164,13 @@ public class TodobarController implements Initializable {
         });
     }
 
-    // EFFECTS: show options pop up when its icon is clicked
+    // EFFECTS: show options pop up for this Todobar when its icon is clicked
     private void loadOptionsPopUpActionListener() {
         todoOptionsPopUpBurger.setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent e) {
-                optionsPopUp.show(todoOptionsPopUpBurger,
+                activeTodobar = TodobarController.this;
+                getOptionsPopUp().show(todoOptionsPopUpBurger,
                         JFXPopup.PopupVPosition.TOP,
                         JFXPopup.PopupHPosition.RIGHT,
                         -12,
@@ -114,54 +179,76 @@ public class TodobarController implements Initializable {
         });
     }
 
-    // Inner class: option pop up controller
-    class TodobarOptionsPopUpController {
+    // Inner class: option pop up controller; acts on the task of the Todobar the pop up was shown from
+    static class TodobarOptionsPopUpController {
         @FXML
         private JFXListView<?> optionPopUpList;
 
         @FXML
         private void submit() {
+            optionsPopUp.hide();
+            if (!PomoTodoApp.isLoaded()) {
+                Logger.log("TodobarOptionsPopUpController", "Tasks are still loading; try again once they are loaded.");
+                return;
+            }
             int selectedIndex = optionPopUpList.getSelectionModel().getSelectedIndex();
             switch (selectedIndex) {
                 case 0:
                     Logger.log("TodobarOptionsPopUpController", "Edit is not supported in this version");
-                    editTask();
+                    activeTodobar.editTask();
                     break;
                 case 1:
-                    deleteTask();
+                    activeTodobar.deleteTask();
                     break;
                 default:
                     Logger.log("TodobarOptionsPopUpController", "No action is implemented for the selected option");
             }
-            optionsPopUp.hide();
         }
     }
 
-    // Inner class: view selector pop up controller
-    class TodobarActionsPopUpController {
+    // Inner class: view selector pop up controller; acts on the task of the Todobar the pop up was shown from
+    static class TodobarActionsPopUpController {
         @FXML
         private JFXListView<?> actionPopUpList;
 
         @FXML
         private void submit() {
             int selectedIndex = actionPopUpList.getSelectionModel().getSelectedIndex();
-            Logger.log("TodobarActionsPopUpController",
-                    "No action is implemented for the selected option - " + selectedIndex);
             actionsPopUp.hide();
+            switch (selectedIndex) {
+                case 4:
+                    activeTodobar.togglePomodoro();
+                    break;
+                default:
+                    Logger.info("TodobarActionsPopUpController",
+                            "No action is implemented for the selected option - %d", selectedIndex);
+            }
         }
     }
 
 
-    // MODIFIES: PomoTodoApp.tasks, tasks.json
-    // EFFECTS: removes task corresponding to this controller from the task list
+    // MODIFIES: PomoTodoApp.store, tasks.json
+    // EFFECTS: removes task corresponding to this controller from the store of tasks, which removes it from the
+    //          tasks of each of its tags
     private void deleteTask() {
-        PomoTodoApp.getTasks().remove(this.task);
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
-        try {
-            JsonFileIO.write(PomoTodoApp.getTasks());
-        } catch (IOException e) {
-            throw new RuntimeException();
+        PomoTodoApp.getStore().remove(task);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a Pomodoro on the task of this Todobar, or stops the one running on it, and shows it in every
+    //          Todobar of the task; the work done is credited to the task, so the tasks must be loaded
+    private void togglePomodoro() {
+        if (!PomoTodoApp.isLoaded()) {
+            Logger.log("TodobarActionsPopUpController", "Tasks are still loading; try again once they are loaded.");
+            return;
+        }
+        PomodoroEngine engine = PomoTodoApp.getPomodoroEngine();
+        if (engine.get(task) == null) {
+            engine.start(task);
+        } else {
+            engine.stop(task);
         }
+        refreshPomodoro(task);
     }
 
     // EFFECTS: changes app to edit task screen
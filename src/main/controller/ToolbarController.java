@@ -4,13 +4,19 @@ import com.jfoenix.controls.JFXHamburger;
 import com.jfoenix.controls.JFXListView;
 import com.jfoenix.controls.JFXPopup;
 import com.jfoenix.controls.JFXRippler;
+import com.jfoenix.controls.JFXTextField;
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
+import ui.PomoTodoApp;
+import ui.Settings;
 import utility.Logger;
 
 import java.io.File;
@@ -33,6 +39,10 @@ public class ToolbarController implements Initializable {
     private JFXRippler toolbarPopUpRippler;
     @FXML
     private StackPane toolbarPopUpBurger;
+    @FXML
+    private JFXTextField searchField;
+    @FXML
+    private Label overdueLabel;
 
     private JFXPopup toolbarPopUp;
     private JFXPopup viewPopUp;
@@ -43,6 +53,22 @@ public class ToolbarController implements Initializable {
         loadToolbarPopUpActionListener();
         loadViewOptionsPopUp();
         loadViewOptionsPopUpActionListener();
+        loadSearchListener();
+        bindOverdueLabel();
+    }
+    
+    // EFFECTS: shows the number of overdue tasks, if there are any
+    private void bindOverdueLabel() {
+        ReadOnlyIntegerProperty overdue = PomoTodoApp.overdueCountProperty();
+        overdueLabel.textProperty().bind(Bindings.when(overdue.greaterThan(0))
+                .then(overdue.asString("%d overdue")).otherwise(""));
+    }
+    
+    // EFFECTS: shows the tasks matching the search box as its text changes
+    //          starting from the text of the last search, which may have been made in another view
+    private void loadSearchListener() {
+        searchField.setText(PomoTodoApp.getSearchText());
+        searchField.textProperty().addListener((observable, oldText, text) -> PomoTodoApp.search(text));
     }
     
     // EFFECTS: load options pop up (setting, exit)
@@ -103,20 +129,23 @@ public class ToolbarController implements Initializable {
         @FXML
         private void submit() {
             int selectedIndex = viewPopUpList.getSelectionModel().getSelectedIndex();
+            viewPopUp.hide();
             switch (selectedIndex) {
                 case 0:
                     Logger.log("ToolbarActionsPopUpController", "List View Selected");
+                    PomoTodoApp.showListView();
                     break;
                 case 1:
-                    Logger.log("ToolbarActionsPopUpController", "Priority View is not supported in this version!");
+                    Logger.log("ToolbarActionsPopUpController", "Priority View Selected");
+                    PomoTodoApp.showPriorityView();
                     break;
                 case 2:
-                    Logger.log("ToolbarActionsPopUpController", "Status View is not supported in this version!");
+                    Logger.log("ToolbarActionsPopUpController", "Status View Selected");
+                    PomoTodoApp.showStatusView();
                     break;
                 default:
                     Logger.log("ToolbarActionsPopUpController", "No action is implemented for the selected option");
             }
-            viewPopUp.hide();
         }
     }
     
@@ -130,9 +159,18 @@ public class ToolbarController implements Initializable {
             int selectedIndex = toolbarPopUpList.getSelectionModel().getSelectedIndex();
             switch (selectedIndex) {
                 case 0:
-                    Logger.log("ToolbarOptionsPopUpController", "Setting is not supported in this version");
+                    Logger.log("ToolbarOptionsPopUpController", "Undo Selected");
+                    PomoTodoApp.undo();
                     break;
                 case 1:
+                    Logger.log("ToolbarOptionsPopUpController", "Redo Selected");
+                    PomoTodoApp.redo();
+                    break;
+                case 2:
+                    Logger.log("ToolbarOptionsPopUpController", "Settings Selected");
+                    PomoTodoApp.setScene(new Settings());
+                    break;
+                case 3:
                     Logger.log("ToolbarOptionsPopUpController", "Close application");
                     Platform.exit();
                     break;
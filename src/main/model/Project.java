@@ -2,13 +2,29 @@ package model;
 
 import model.exceptions.EmptyStringException;
 import model.exceptions.NullArgumentException;
+import utility.FlightEvents;
 
 import java.util.*;
 
 // Represents a Project, a collection of zero or more Tasks
 // Class Invariant: no duplicated task; order of tasks is preserved
-public class Project extends Todo implements Iterable<Todo>, Observer {
-    private List<Todo> tasks;
+//   tasks are filed in one bucket per priority level (1 = important & urgent ... 4 = neither), each a
+//   doubly-linked list in insertion order
+//   etcHours and progressSum are the sums of the estimated time to complete and progress of the tasks;
+//   they are kept up to date from the changes published by the tasks
+//   within a batch, changes to the rollup are not published; the outermost batch publishes them as one change
+public class Project extends Todo implements Iterable<Todo>, TodoListener {
+    private static final int LEVELS = 4;
+    private static boolean verifyRollups = false;
+    private final Entry[] heads = new Entry[LEVELS];
+    private final Entry[] tails = new Entry[LEVELS];
+    private final Map<Todo, Entry> entries = new IdentityHashMap<>();
+    private final Map<String, List<Entry>> byDescription = new HashMap<>();
+    private int progressSum;
+    private long nextSequence;
+    private int batchDepth;
+    private int etcBeforeBatch;
+    private int progressBeforeBatch;
 
     // MODIFIES: this
     // EFFECTS: constructs a project with the given description
@@ -19,7 +35,6 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
         if (description == null || description.length() == 0) {
             throw new EmptyStringException("Cannot construct a project with no description");
         }
-        tasks = new ArrayList<>();
     }
 
     // MODIFIES: this
@@ -27,9 +42,12 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
     //   throws NullArgumentException when task is null
     public void add(Todo task) {
         if (!contains(task) && !equals(task)) {
-            tasks.add(task);
-            task.addObserver(this);
-            update(task,null);
+            int progressBefore = getProgress();
+            file(new Entry(task));
+            task.addListener(this);
+            etcHours += task.getEstimatedTimeToComplete();
+            progressSum += task.getProgress();
+            publishRollup(task.getEstimatedTimeToComplete(), progressBefore);
         }
     }
 
@@ -37,13 +55,68 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
     // EFFECTS: removes task from this project
     //   throws NullArgumentException when task is null
     public void remove(Todo task) {
-        if (contains(task)) {
-            tasks.remove(task);
-            task.deleteObserver(this);
-            update(task,null);
+        Entry entry = find(task);
+        if (entry != null) {
+            int progressBefore = getProgress();
+            unfile(entry);
+            entry.todo.removeListener(this);
+            etcHours -= entry.todo.getEstimatedTimeToComplete();
+            progressSum -= entry.todo.getProgress();
+            publishRollup(-entry.todo.getEstimatedTimeToComplete(), progressBefore);
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: adds every task of tasks to this project (that is not already part of it), in order, as a batch
+    //   throws NullArgumentException when tasks or one of them is null; the tasks before it are added
+    public void addAll(Collection<? extends Todo> tasks) {
+        if (tasks == null) {
+            throw new NullArgumentException("Illegal argument: tasks is null");
+        }
+        batch(() -> {
+            for (Todo task : tasks) {
+                add(task);
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every task of tasks from this project, as a batch
+    //   throws NullArgumentException when tasks or one of them is null; the tasks before it are removed
+    public void removeAll(Collection<? extends Todo> tasks) {
+        if (tasks == null) {
+            throw new NullArgumentException("Illegal argument: tasks is null");
+        }
+        batch(() -> {
+            for (Todo task : tasks) {
+                remove(task);
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs edits (of this project, or of its tasks) as a batch: the changes to estimated completion time
+    //          and progress they make are not published as they happen, but once edits return (or throw), as a
+    //          single change, if any; batches may be nested, and only the outermost one publishes
+    public void batch(Runnable edits) {
+        if (batchDepth++ == 0) {
+            etcBeforeBatch = etcHours;
+            progressBeforeBatch = getProgress();
+        }
+        try {
+            edits.run();
+        } finally {
+            if (--batchDepth == 0) {
+                publishRollup(etcHours - etcBeforeBatch, progressBeforeBatch);
+            }
+        }
+    }
+
+    // EFFECTS: returns true if a batch of this project is running
+    public boolean isBatching() {
+        return batchDepth > 0;
+    }
+
     // EFFECTS: returns the description of this project
     public String getDescription() {
         return description;
@@ -65,16 +138,12 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
 //     the value returned is the average of the percentage of completion of
 //     all the tasks and sub-projects in this project.
     public int getProgress() {
-        int sum = 0;
-        for (Todo t : tasks) {
-            sum += t.getProgress();
-        }
-        return tasks.size() == 0 ? 0 : sum / tasks.size();
+        return entries.size() == 0 ? 0 : progressSum / entries.size();
     }
 
     // EFFECTS: returns the number of tasks (and sub-projects) in this project
     public int getNumberOfTasks() {
-        return tasks.size();
+        return entries.size();
     }
 
     // EFFECTS: returns true if every task (and sub-project) in this project is completed, and false otherwise
@@ -86,10 +155,7 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
     // EFFECTS: returns true if this project contains the task
     //   throws NullArgumentException when task is null
     public boolean contains(Todo task) {
-        if (task == null) {
-            throw new NullArgumentException("Illegal argument: task is null");
-        }
-        return tasks.contains(task);
+        return find(task) != null;
     }
 
     @Override
@@ -109,74 +175,244 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
         return Objects.hash(description);
     }
 
+    // EFFECTS: returns an iterator over the tasks of this project, most important and urgent first;
+    //          tasks of the same priority are returned in the order they were added
     @Override
     public Iterator<Todo> iterator() {
-        return new TodoIterator(); //stub
+        return new TodoIterator();
     }
 
-    // EFFECTS: updates estimated completion time
+    // MODIFIES: this
+    // EFFECTS: updates estimated completion time and progress from the change published by a task, and refiles
+    //          the task if its description or priority changed
     @Override
-    public void update(Observable o, Object arg) {
+    public void todoChanged(Todo todo, TodoChange change) {
+        int progressBefore = getProgress();
+        etcHours += change.getEstimatedTimeDelta();
+        progressSum += change.getProgressDelta();
+        if (change.changed(TodoChange.Field.DESCRIPTION) || change.changed(TodoChange.Field.PRIORITY)) {
+            refile(entries.get(todo));
+        }
+        publishRollup(change.getEstimatedTimeDelta(), progressBefore);
+    }
+
+    // EFFECTS: when enabled, every update of estimated completion time and progress is checked against a
+    //          full recomputation, and IllegalStateException is thrown on a mismatch (for testing)
+    public static void setVerifyRollups(boolean verify) {
+        verifyRollups = verify;
+    }
+
+    // EFFECTS: returns the bucket (0 for important & urgent ... 3 for neither) of a to-do with the given priority
+    private static int bucketOf(Priority priority) {
+        if (priority.isImportant()) {
+            return priority.isUrgent() ? 0 : 1;
+        }
+        return priority.isUrgent() ? 2 : 3;
+    }
+
+    // EFFECTS: returns the entry of task, or of a task equal to it, or null if this project does not contain it
+    //   throws NullArgumentException when task is null
+    private Entry find(Todo task) {
+        if (task == null) {
+            throw new NullArgumentException("Illegal argument: task is null");
+        }
+        Entry entry = entries.get(task);
+        if (entry == null) {
+            List<Entry> sameDescription = byDescription.get(task.getDescription());
+            if (sameDescription != null) {
+                for (Entry e : sameDescription) {
+                    if (e.todo.equals(task)) {
+                        return e;
+                    }
+                }
+            }
+        }
+        return entry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: files entry, as the last one added, at the end of the bucket of its priority and indexes it
+    //          by its description
+    private void file(Entry entry) {
+        entry.sequence = nextSequence++;
+        entry.bucket = bucketOf(entry.todo.getPriority());
+        link(entry);
+        entries.put(entry.todo, entry);
+        index(entry, entry.todo.getDescription());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes entry from its bucket and from the indexes
+    private void unfile(Entry entry) {
+        unlink(entry);
+        entries.remove(entry.todo);
+        unindex(entry);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves entry to the bucket of its priority, in the place it was added in, and reindexes it by
+    //          its description, if either no longer matches where it is filed
+    private void refile(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        int bucket = bucketOf(entry.todo.getPriority());
+        if (bucket != entry.bucket) {
+            unlink(entry);
+            entry.bucket = bucket;
+            link(entry);
+        }
+        if (!entry.description.equals(entry.todo.getDescription())) {
+            unindex(entry);
+            index(entry, entry.todo.getDescription());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: links entry into its bucket after every entry added before it and before every entry added after
+    //          it; the search starts from the end of the bucket, where new entries go
+    private void link(Entry entry) {
+        Entry prev = tails[entry.bucket];
+        while (prev != null && prev.sequence > entry.sequence) {
+            prev = prev.prev;
+        }
+        entry.prev = prev;
+        entry.next = prev == null ? heads[entry.bucket] : prev.next;
+        if (prev == null) {
+            heads[entry.bucket] = entry;
+        } else {
+            prev.next = entry;
+        }
+        if (entry.next == null) {
+            tails[entry.bucket] = entry;
+        } else {
+            entry.next.prev = entry;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unlinks entry from its bucket
+    // Note: entry.next is left in place so that an iterator positioned on entry can move past it
+    private void unlink(Entry entry) {
+        if (entry.prev == null) {
+            heads[entry.bucket] = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+        if (entry.next == null) {
+            tails[entry.bucket] = entry.prev;
+        } else {
+            entry.next.prev = entry.prev;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes entry by description
+    private void index(Entry entry, String description) {
+        entry.description = description;
+        byDescription.computeIfAbsent(description, d -> new ArrayList<>(1)).add(entry);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes entry from the index by description
+    private void unindex(Entry entry) {
+        List<Entry> sameDescription = byDescription.get(entry.description);
+        sameDescription.remove(entry);
+        if (sameDescription.isEmpty()) {
+            byDescription.remove(entry.description);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets etcHours and progressSum to the sums over every task
+    private void recomputeRollup() {
         etcHours = 0;
-        for (Todo t : tasks) {
+        progressSum = 0;
+        for (Todo t : entries.keySet()) {
             etcHours += t.getEstimatedTimeToComplete();
+            progressSum += t.getProgress();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: notifies listeners that estimated completion time changed by etcDelta and that progress
+    //          changed from progressBefore, unless a batch is running; emits a project update event when
+    //          it is enabled in a recording
+    private void publishRollup(int etcDelta, int progressBefore) {
+        if (batchDepth > 0) {
+            return;
+        }
+        if (verifyRollups) {
+            verifyRollup();
+        }
+        FlightEvents.Span event = FlightEvents.isEnabled(FlightEvents.Type.PROJECT_UPDATE)
+                ? FlightEvents.begin(FlightEvents.Type.PROJECT_UPDATE) : null;
+        publishChange(new TodoChange(etcDelta, getProgress() - progressBefore));
+        if (event != null) {
+            event.commit(description, entries.size());
+        }
+    }
+
+    // EFFECTS: throws IllegalStateException if etcHours or progressSum differ from the sums over every task
+    private void verifyRollup() {
+        int etc = etcHours;
+        int sum = progressSum;
+        recomputeRollup();
+        if (etc != etcHours || sum != progressSum) {
+            throw new IllegalStateException("Rollup of " + description + " is out of date: estimated time "
+                    + etc + " instead of " + etcHours + ", progress sum " + sum + " instead of " + progressSum);
+        }
+    }
+
+    // Represents the place of a task in this project: when it was added, its bucket, its neighbours in the
+    // bucket, and the description it is indexed by
+    private static class Entry {
+        private final Todo todo;
+        private long sequence;
+        private int bucket;
+        private String description;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(Todo todo) {
+            this.todo = todo;
         }
-        setChanged();
-        notifyObservers();
     }
 
     // inner class
     private class TodoIterator implements Iterator<Todo> {
-        private int index;
-        private int priorityLevel;
+        private int bucket;
+        private Entry next;
 
         public TodoIterator() {
-            index = 0;
-            priorityLevel = 1;
+            bucket = -1;
+            advance(null);
         }
 
         @Override
         public boolean hasNext() {
-            if (priorityLevel > 4 || tasks.size() == 0) {
-                return false;
-            }
-            int currentIndex = index;
-            int currentPriority = priorityLevel;
-            Todo next = findNextValid();
-            index = currentIndex;
-            priorityLevel = currentPriority;
-
             return next != null;
         }
 
         @Override
         public Todo next() {
-            if (!hasNext()) {
+            if (next == null) {
                 throw new NoSuchElementException();
             }
-            return findNextValid();
+            Entry current = next;
+            advance(current.next);
+            return current.todo;
         }
 
         // MODIFIES: this
-        // EFFECTS: returns the next valid to do object, or null if none found
-        private Todo findNextValid() {
-
-            while (priorityLevel < 5) {
-                Todo current = tasks.get(index);
-                int currentp = priorityLevel;
-                index++;
-
-                if (index >= tasks.size()) {
-                    index = 0;
-                    priorityLevel++;
-                }
-
-                if (current.getPriority().equals(new Priority(currentp))) {
-                    return current;
-                }
+        // EFFECTS: positions this iterator on candidate, or on the head of the next non-empty bucket if null
+        private void advance(Entry candidate) {
+            next = candidate;
+            while (next == null && bucket < LEVELS - 1) {
+                bucket++;
+                next = heads[bucket];
             }
-            return null;
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package model;
+
+import model.exceptions.NullArgumentException;
+
+import java.util.*;
+
+// Represents an inverted index of the words in the descriptions of tasks, for full-text search.
+// A word is a maximal run of letters and digits, folded to lower case. The index observes its tasks and
+// re-reads the words of a task whenever its description changes.
+// Class Invariant: every task in the index is filed under each word of its current description, and under
+//   no other word; membership is by identity
+public class SearchIndex implements TodoListener {
+    private static final int WORD_TASKS = 2;    // expected number of tasks per word; most words are rare
+    private final NavigableMap<String, Set<Task>> postings = new TreeMap<>();
+    private final Map<Task, String[]> words = new IdentityHashMap<>();
+
+    // EFFECTS: constructs an empty index
+    public SearchIndex() {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: constructs an index of the descriptions of tasks
+    public SearchIndex(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: adds task to this index, if it is not already in it
+    //   throws NullArgumentException if task is null
+    public void add(Task task) {
+        if (task == null) {
+            throw new NullArgumentException("Illegal argument: task is null");
+        }
+        add(task, tokenize(task.getDescription()));
+    }
+
+    // REQUIRES: words are the words of tokenize(task.getDescription()), in any order
+    // MODIFIES: this, task
+    // EFFECTS: adds task to this index under words, if it is not already in it
+    // Note: for indexes read back from a file, which already know the words of each task
+    public void add(Task task, String[] words) {
+        if (!this.words.containsKey(task)) {
+            file(task, words);
+            task.addListener(this);
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: removes task from this index, if it is in it
+    public void remove(Task task) {
+        String[] filed = words.get(task);
+        if (filed != null) {
+            unfile(task, filed);
+            task.removeListener(this);
+        }
+    }
+
+    // MODIFIES: this, tasks
+    // EFFECTS: makes tasks (these exact objects) the content of this index, removing every other task
+    public void retainOnly(Collection<Task> tasks) {
+        Set<Task> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(tasks);
+        for (Task task : new ArrayList<>(words.keySet())) {
+            if (!kept.contains(task)) {
+                remove(task);
+            }
+        }
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    // EFFECTS: returns true if task (this exact object) is in this index
+    public boolean contains(Task task) {
+        return words.containsKey(task);
+    }
+
+    // EFFECTS: returns the number of tasks in this index
+    public int size() {
+        return words.size();
+    }
+
+    // EFFECTS: returns the tasks in this index whose description has, for every word of text, a word starting
+    //          with it, ignoring case, in no particular order; returns no task if text has no words
+    public List<Task> search(String text) {
+        String[] prefixes = tokenize(text);
+        List<Task> result = new ArrayList<>();
+        if (prefixes.length == 0) {
+            return result;
+        }
+        Set<Task> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Set<Task> tasks : fewestMatches(prefixes)) {
+            candidates.addAll(tasks);
+        }
+        for (Task task : candidates) {
+            if (hasWordsStartingWith(words.get(task), prefixes)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-reads the words of the task that published change, if its description changed
+    @Override
+    public void todoChanged(Todo todo, TodoChange change) {
+        String[] filed = words.get(todo);
+        if (filed != null && change.changed(TodoChange.Field.DESCRIPTION)) {
+            unfile((Task) todo, filed);
+            file((Task) todo, tokenize(todo.getDescription()));
+        }
+    }
+
+    // EFFECTS: returns the distinct words of text, folded to lower case, in order of first occurrence
+    public static String[] tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    // EFFECTS: returns the sets of tasks filed under a word starting with the prefix of prefixes that matches
+    //          the fewest tasks
+    private Collection<Set<Task>> fewestMatches(String[] prefixes) {
+        Collection<Set<Task>> fewest = null;
+        int fewestSize = Integer.MAX_VALUE;
+        for (String prefix : prefixes) {
+            Collection<Set<Task>> matches = startingWith(prefix);
+            int size = sizeOf(matches);
+            if (size < fewestSize) {
+                fewest = matches;
+                fewestSize = size;
+            }
+        }
+        return fewest;
+    }
+
+    // EFFECTS: returns the sets of tasks filed under a word starting with prefix
+    private Collection<Set<Task>> startingWith(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+    }
+
+    // EFFECTS: returns true if, for every prefix of prefixes, one of words starts with it
+    private static boolean hasWordsStartingWith(String[] words, String[] prefixes) {
+        for (String prefix : prefixes) {
+            boolean found = false;
+            for (int i = 0; i < words.length && !found; i++) {
+                found = words[i].startsWith(prefix);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: files task under each of words
+    private void file(Task task, String[] words) {
+        this.words.put(task, words);
+        for (String word : words) {
+            Set<Task> tasks = postings.get(word);
+            if (tasks == null) {
+                tasks = Collections.newSetFromMap(new IdentityHashMap<>(WORD_TASKS));
+                postings.put(word, tasks);
+            }
+            tasks.add(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task from the sets of words, dropping sets that become empty
+    private void unfile(Task task, String[] words) {
+        this.words.remove(task);
+        for (String word : words) {
+            Set<Task> tasks = postings.get(word);
+            tasks.remove(task);
+            if (tasks.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    // EFFECTS: returns the total size of sets
+    private static int sizeOf(Collection<Set<Task>> sets) {
+        int size = 0;
+        for (Set<Task> tasks : sets) {
+            size += tasks.size();
+        }
+        return size;
+    }
+}
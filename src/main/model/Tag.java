@@ -4,24 +4,33 @@ import model.exceptions.EmptyStringException;
 import model.exceptions.NullArgumentException;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Objects;
 import java.util.Set;
 
 // Represents a tag having a name
+// Class Invariant: all tags with the same name share one collection of tasks, held by the tag
+//   interned in TagRegistry, so that collection is an index of every task carrying the name;
+//   the collection is synchronized, as tasks may be tagged on several threads while they are loaded
 public class Tag {
     private String name;
     private Set<Task> tasks;
 
-    // MODIFIES: this
-    // EFFECTS: creates a Tag with the given name
+    // MODIFIES: this, TagRegistry
+    // EFFECTS: creates a Tag with the given name, sharing the tasks of the interned tag with that name;
+    //          the new tag is interned if it is the first with its name
     //    throws EmptyStringException if name is null or empty
     public Tag(String name) {
         if (name == null || name.length() == 0) {
             throw new EmptyStringException("Cannot construct a tag with no name");
         }
         this.name = name;
-        tasks = new HashSet<>();
+        Tag interned = TagRegistry.lookup(name);
+        if (interned == null) {
+            tasks = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+            interned = TagRegistry.register(this);
+        }
+        tasks = interned.tasks;
     }
     
     // EFFECTS: returns the name of this tag
@@ -49,7 +58,19 @@ public class Tag {
         }
     }
     
-    // EFFECTS: returns true if this tag is assigned to the given task
+    // MODIFIES: this
+    // EFFECTS: adds task to the collection of tasks in this tag, leaving the tags of task as they are
+    void attach(Task task) {
+        tasks.add(task);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task from the collection of tasks in this tag, leaving the tags of task as they are
+    void detach(Task task) {
+        tasks.remove(task);
+    }
+
+    // EFFECTS: returns true if this tag is assigned to the given task (this exact object)
     //     returns false otherwise
     //  throws NullArgumentException if task is null
     public boolean containsTask(Task task) {
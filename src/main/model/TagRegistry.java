@@ -0,0 +1,49 @@
+package model;
+
+import model.exceptions.EmptyStringException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Interns tags by name, so that every task tagged with a given name shares one Tag object.
+// The interned tag's set of tasks is then an inverted index of the tasks carrying that name.
+// Class Invariant: every tag ever constructed has an interned tag with the same name
+public final class TagRegistry {
+    private static final ConcurrentMap<String, Tag> tags = new ConcurrentHashMap<>();
+
+    private TagRegistry() {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the interned tag with the given name, creating it if there is none
+    //  throws EmptyStringException if name is null or empty
+    public static Tag intern(String name) {
+        Tag tag = lookup(name);
+        if (tag == null) {
+            tag = register(new Tag(name));
+        }
+        return tag;
+    }
+
+    // EFFECTS: returns the interned tag with the given name, or null if there is none
+    //  throws EmptyStringException if name is null or empty
+    public static Tag lookup(String name) {
+        if (name == null || name.length() == 0) {
+            throw new EmptyStringException("Tag name cannot be empty or null");
+        }
+        return tags.get(name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: interns tag if no tag with the same name is interned yet; returns the interned tag
+    // Note: called by the Tag constructor; use intern to obtain a tag by name
+    static Tag register(Tag tag) {
+        Tag existing = tags.putIfAbsent(tag.getName(), tag);
+        return existing == null ? tag : existing;
+    }
+
+    // EFFECTS: returns the number of interned tags
+    public static int size() {
+        return tags.size();
+    }
+}
@@ -7,12 +7,17 @@ import model.exceptions.NullArgumentException;
 import parsers.Parser;
 import parsers.TagParser;
 import parsers.exceptions.ParsingException;
+import utility.Metrics;
 
 import java.util.*;
 
 // Represents a Task having a description, status, priorities, set of tags and due date.
+// Note: every setter of a frozen copy (see frozenCopy) throws UnsupportedOperationException
 public class Task extends Todo {
     public static final DueDate NO_DUE_DATE = null;
+    private static final String META_DATA_SEPARATOR = "##";
+    private static final Metrics.Histogram constructTimes = Metrics.histogram("task.construct");
+    private static final Metrics.Histogram parseDescriptionTimes = Metrics.histogram("task.parseDescription");
 
     private Set<Tag> tags;
     private DueDate dueDate;
@@ -29,21 +34,89 @@ public class Task extends Todo {
         if (description == null || description.length() == 0) {
             throw new EmptyStringException("Cannot construct a task with no description");
         }
+        long start = System.nanoTime();
         this.description = description;
         tags = new HashSet<>();
         dueDate = NO_DUE_DATE;
         priority = new Priority(4);
         status = Status.TODO;
         setDescription(description);
+        constructTimes.recordSince(start);
+    }
+
+    // EFFECTS: constructs a frozen copy of original
+    private Task(Task original) {
+        super(original.description);
+        progress = original.progress;
+        etcHours = original.etcHours;
+        priority = copyOf(original.priority);
+        tags = new HashSet<>(original.tags);
+        dueDate = copyOf(original.dueDate);
+        status = original.status;
+        freeze();
+    }
+
+    // EFFECTS: returns a frozen copy of this task: a task with the same description, tags, due date, priority,
+    //          status, progress and estimated time to complete, whose setters all throw
+    //          UnsupportedOperationException; the copy is not among the tasks of its tags and has no listeners,
+    //          so later changes to this task never show in it; its priority and due date are returned as copies,
+    //          so that it cannot be changed through them either. Returns this task if it is frozen already.
+    public Task frozenCopy() {
+        return isFrozen() ? this : new Task(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the description, tags, due date, priority, status, progress and estimated time to complete of
+    //          this task to those of state (usually an earlier frozen copy of it), without parsing the description;
+    //          publishes a change for each field that differs
+    //  throws UnsupportedOperationException if this task is frozen
+    public void restore(Task state) {
+        checkNotFrozen();
+        if (!description.equals(state.description)) {
+            description = state.description;
+            publishChange(new TodoChange(TodoChange.Field.DESCRIPTION));
+        }
+        for (Tag tag : new ArrayList<>(tags)) {
+            if (!state.tags.contains(tag)) {
+                removeTag(tag);
+            }
+        }
+        for (Tag tag : state.tags) {
+            addTag(tag);
+        }
+        if (!Objects.equals(dueDate, state.dueDate)) {
+            setDueDate(copyOf(state.dueDate));
+        }
+        if (!priority.equals(state.priority)) {
+            setPriority(copyOf(state.priority));
+        }
+        if (status != state.status) {
+            setStatus(state.status);
+        }
+        setProgress(state.progress);
+        setEstimatedTimeToComplete(state.etcHours);
+    }
+
+    // EFFECTS: returns a copy of priority
+    private static Priority copyOf(Priority priority) {
+        Priority copy = new Priority();
+        copy.setImportant(priority.isImportant());
+        copy.setUrgent(priority.isUrgent());
+        return copy;
+    }
+
+    // EFFECTS: returns a copy of dueDate, or NO_DUE_DATE if it is
+    private static DueDate copyOf(DueDate dueDate) {
+        return dueDate == NO_DUE_DATE ? NO_DUE_DATE : new DueDate(new Date(dueDate.getDate().getTime()));
     }
 
 
     // MODIFIES: this
-    // EFFECTS: creates a tag with name tagName and adds it to this task
+    // EFFECTS: adds the interned tag with name tagName to this task, creating the tag if necessary
     //  throws EmptyStringException if tagName is null or empty
     // Note: no two tags are to have the same name
     public void addTag(String tagName) {
-        addTag(new Tag(tagName));
+        addTag(TagRegistry.intern(tagName));
     }
 
     // MODIFIES: this
@@ -51,8 +124,30 @@ public class Task extends Todo {
     //  throws NullArgumentException if tag is null
     public void addTag(Tag tag) {
         if (!containsTag(tag)) {
+            checkNotFrozen();
             tags.add(tag);
             tag.addTask(this);
+            publishChange(new TodoChange(TodoChange.Field.TAGS));
+        }
+    }
+
+    // MODIFIES: the tags of this
+    // EFFECTS: removes this task from the tasks of each of its tags, which it keeps, as when it is deleted: the
+    //          tags no longer list it, but it can be restored as it was (see attachToTags)
+    public void detachFromTags() {
+        for (Tag tag : tags) {
+            tag.detach(this);
+        }
+    }
+
+    // MODIFIES: the tags of this
+    // EFFECTS: adds this task to the tasks of each of its tags again, after detachFromTags; does nothing if this
+    //          is a frozen copy, which is never among the tasks of its tags
+    public void attachToTags() {
+        if (!isFrozen()) {
+            for (Tag tag : tags) {
+                tag.attach(this);
+            }
         }
     }
 
@@ -60,7 +155,10 @@ public class Task extends Todo {
     // EFFECTS: removes the tag with name tagName from this task
     //  throws EmptyStringException if tagName is empty or null
     public void removeTag(String tagName) {
-        removeTag(new Tag(tagName));
+        Tag tag = TagRegistry.lookup(tagName);
+        if (tag != null) {
+            removeTag(tag);
+        }
     }
 
     // MODIFIES: this
@@ -68,8 +166,10 @@ public class Task extends Todo {
     //  throws NullArgumentException if tag is null
     public void removeTag(Tag tag) {
         if (containsTag(tag)) {
+            checkNotFrozen();
             tags.remove(tag);
             tag.removeTask(this);
+            publishChange(new TodoChange(TodoChange.Field.TAGS));
         }
     }
 
@@ -92,7 +192,9 @@ public class Task extends Todo {
         if (status == null) {
             throw new NullArgumentException("Illegal argument: status is null");
         }
+        checkNotFrozen();
         this.status = status;
+        publishChange(new TodoChange(TodoChange.Field.STATUS));
     }
 
     // EFFECTS: returns the description of this task
@@ -117,7 +219,10 @@ public class Task extends Todo {
         if (progress < 0 || progress > 100) {
             throw new InvalidProgressException();
         }
+        checkNotFrozen();
+        int delta = progress - this.progress;
         this.progress = progress;
+        publishChange(new TodoChange(0, delta));
     }
 
     // MODIFIES: this
@@ -127,9 +232,10 @@ public class Task extends Todo {
         if (hours < 0) {
             throw new NegativeInputException();
         }
+        checkNotFrozen();
+        int delta = hours - this.etcHours;
         this.etcHours = hours;
-        setChanged();
-        notifyObservers();
+        publishChange(new TodoChange(delta, 0));
     }
 
     // MODIFIES: this
@@ -140,29 +246,44 @@ public class Task extends Todo {
         if (description == null || description.length() == 0) {
             throw new EmptyStringException("setDescription is called with no description");
         }
+        checkNotFrozen();
+        boolean important = priority.isImportant();
+        boolean urgent = priority.isUrgent();
         this.description = description;
         parseDescription(description);
+        publishChange(new TodoChange(TodoChange.Field.DESCRIPTION));
+        if (priority.isImportant() != important || priority.isUrgent() != urgent) {
+            publishChange(new TodoChange(TodoChange.Field.PRIORITY));
+        }
     }
 
-    // EFFECTS: returns the due date of this task
+    // EFFECTS: returns the due date of this task; a copy of it if this task is frozen
     public DueDate getDueDate() {
-        return dueDate;
+        return isFrozen() ? copyOf(dueDate) : dueDate;
+    }
+
+    // EFFECTS: returns the priority of this task; a copy of it if this task is frozen
+    @Override
+    public Priority getPriority() {
+        return isFrozen() ? copyOf(priority) : priority;
     }
 
     // MODIFIES: this
     // EFFECTS: sets the due date of this task
+    // Note: task indexes file tasks by due date; change a task's due date through this method rather than
+    //       by modifying the object returned by getDueDate
     public void setDueDate(DueDate dueDate) {
+        checkNotFrozen();
         this.dueDate = dueDate;
+        publishChange(new TodoChange(TodoChange.Field.DUE_DATE));
     }
 
     // EFFECTS: returns true if task contains a tag with tagName,
     //     returns false otherwise
     //  throws EmptyStringException if tagName is empty or null
     public boolean containsTag(String tagName) {
-        if (tagName == null || tagName.length() == 0) {
-            throw new EmptyStringException("Tag name cannot be empty or null");
-        }
-        return containsTag(new Tag(tagName));
+        Tag tag = TagRegistry.lookup(tagName);
+        return tag != null && containsTag(tag);
     }
 
     // EFFECTS: returns true if task contains this tag,
@@ -179,6 +300,10 @@ public class Task extends Todo {
     // MODIFIES: this
     // EFFECTS: parses the description to extract meta-data (i.e., tags, status, priority and deadline).
     private void parseDescription(String description) {
+        if (!description.contains(META_DATA_SEPARATOR)) {
+            return;     // no meta-data: the parser would only reject the description
+        }
+        long start = System.nanoTime();
         Parser parser = new TagParser();
         try {
             parser.parse(description, this);
@@ -186,6 +311,7 @@ public class Task extends Todo {
         } catch (ParsingException e) {
             this.description = description;
         }
+        parseDescriptionTimes.recordSince(start);
     }
 
     //EFFECTS: returns a string representation of this task in the following format
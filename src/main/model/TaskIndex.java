@@ -0,0 +1,214 @@
+package model;
+
+import model.exceptions.NullArgumentException;
+
+import java.util.*;
+
+// Represents a collection of tasks with secondary indexes on their tags, status, priority quadrant and due date.
+// The index observes its tasks and refiles a task whenever it publishes a change to one of those fields
+// (a change of description refiles everything, as re-parsing may change any of them).
+// Class Invariant: every task in the index is filed under its current tags, status, quadrant and due date;
+//   membership is by identity
+public class TaskIndex implements TodoListener {
+    private static final int QUADRANTS = 4;
+    private static final long SECOND = 1000;
+    private final Map<Task, Keys> entries = new IdentityHashMap<>();
+    private final Map<String, Set<Task>> byTag = new HashMap<>();
+    private final Map<Status, Set<Task>> byStatus = new EnumMap<>(Status.class);
+    private final List<Set<Task>> byQuadrant = new ArrayList<>(QUADRANTS);
+    private final NavigableMap<Long, Set<Task>> byDueDate = new TreeMap<>();
+    private final Set<Task> noDueDate = identitySet();
+
+    // EFFECTS: constructs an empty index
+    public TaskIndex() {
+        for (Status status : Status.values()) {
+            byStatus.put(status, identitySet());
+        }
+        for (int i = 0; i < QUADRANTS; i++) {
+            byQuadrant.add(identitySet());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: constructs an index of tasks
+    public TaskIndex(Collection<Task> tasks) {
+        this();
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: adds task to this index, if it is not already in it
+    //   throws NullArgumentException if task is null
+    public void add(Task task) {
+        if (task == null) {
+            throw new NullArgumentException("Illegal argument: task is null");
+        }
+        if (!entries.containsKey(task)) {
+            file(task);
+            task.addListener(this);
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: removes task from this index, if it is in it
+    public void remove(Task task) {
+        Keys keys = entries.get(task);
+        if (keys != null) {
+            unfile(task, keys);
+            task.removeListener(this);
+        }
+    }
+
+    // EFFECTS: returns true if task (this exact object) is in this index
+    public boolean contains(Task task) {
+        return entries.containsKey(task);
+    }
+
+    // EFFECTS: returns the number of tasks in this index
+    public int size() {
+        return entries.size();
+    }
+
+    // EFFECTS: returns the tasks in this index that match query, in no particular order
+    public List<Task> find(TaskQuery query) {
+        return query.run(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refiles the task that published change, if it concerns an indexed field
+    @Override
+    public void todoChanged(Todo todo, TodoChange change) {
+        Keys keys = entries.get(todo);
+        if (keys != null && isIndexed(change)) {
+            unfile((Task) todo, keys);
+            file((Task) todo);
+        }
+    }
+
+    // EFFECTS: returns every task in this index
+    Set<Task> all() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    // EFFECTS: returns the tasks in this index having a tag with the given name
+    Set<Task> withTag(String tagName) {
+        Set<Task> tasks = byTag.get(tagName);
+        return tasks == null ? Collections.emptySet() : Collections.unmodifiableSet(tasks);
+    }
+
+    // EFFECTS: returns the tasks in this index having the given status
+    Set<Task> withStatus(Status status) {
+        return Collections.unmodifiableSet(byStatus.get(status));
+    }
+
+    // EFFECTS: returns the tasks in this index in the given quadrant (0 = important & urgent ... 3 = neither)
+    Set<Task> inQuadrant(int quadrant) {
+        return Collections.unmodifiableSet(byQuadrant.get(quadrant));
+    }
+
+    // EFFECTS: returns the sets of tasks in this index due between from (inclusive) and to (exclusive),
+    //          in milliseconds since the epoch, one set per distinct due date, in order of due date
+    Collection<Set<Task>> dueBetween(long from, long to) {
+        return byDueDate.subMap(from, true, to, false).values();
+    }
+
+    // EFFECTS: returns the tasks in this index that have no due date
+    Set<Task> withoutDueDate() {
+        return Collections.unmodifiableSet(noDueDate);
+    }
+
+    // EFFECTS: returns the quadrant of priority (0 = important & urgent ... 3 = neither)
+    public static int quadrantOf(Priority priority) {
+        if (priority.isImportant()) {
+            return priority.isUrgent() ? 0 : 1;
+        }
+        return priority.isUrgent() ? 2 : 3;
+    }
+
+    // EFFECTS: returns the due date of task in milliseconds since the epoch, rounded down to the second,
+    //          or null if it has none
+    // Note: DueDate.getDate fills in the milliseconds from the clock on every call, so they are dropped here
+    //       to keep the key of a task stable
+    static Long dueMillisOf(Task task) {
+        if (task.getDueDate() == null) {
+            return null;
+        }
+        return Math.floorDiv(task.getDueDate().getDate().getTime(), SECOND) * SECOND;
+    }
+
+    // EFFECTS: returns true if change concerns a field this index is keyed on
+    private static boolean isIndexed(TodoChange change) {
+        return change.changed(TodoChange.Field.TAGS) || change.changed(TodoChange.Field.STATUS)
+                || change.changed(TodoChange.Field.PRIORITY) || change.changed(TodoChange.Field.DUE_DATE)
+                || change.changed(TodoChange.Field.DESCRIPTION);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: files task under its current tags, status, quadrant and due date
+    private void file(Task task) {
+        Keys keys = new Keys(task);
+        entries.put(task, keys);
+        for (String tag : keys.tags) {
+            byTag.computeIfAbsent(tag, t -> identitySet()).add(task);
+        }
+        byStatus.get(keys.status).add(task);
+        byQuadrant.get(keys.quadrant).add(task);
+        if (keys.dueMillis == null) {
+            noDueDate.add(task);
+        } else {
+            byDueDate.computeIfAbsent(keys.dueMillis, d -> identitySet()).add(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task from the sets it was filed in under keys
+    private void unfile(Task task, Keys keys) {
+        entries.remove(task);
+        for (String tag : keys.tags) {
+            removeFrom(byTag, tag, task);
+        }
+        byStatus.get(keys.status).remove(task);
+        byQuadrant.get(keys.quadrant).remove(task);
+        if (keys.dueMillis == null) {
+            noDueDate.remove(task);
+        } else {
+            removeFrom(byDueDate, keys.dueMillis, task);
+        }
+    }
+
+    // MODIFIES: index
+    // EFFECTS: removes task from the set of key in index, dropping the set if it becomes empty
+    private static <K> void removeFrom(Map<K, Set<Task>> index, K key, Task task) {
+        Set<Task> tasks = index.get(key);
+        tasks.remove(task);
+        if (tasks.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    // EFFECTS: returns an empty set whose membership is by identity
+    private static Set<Task> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    // Represents the keys a task is filed under
+    private static class Keys {
+        private final String[] tags;
+        private final Status status;
+        private final int quadrant;
+        private final Long dueMillis;
+
+        private Keys(Task task) {
+            tags = new String[task.getTags().size()];
+            int i = 0;
+            for (Tag tag : task.getTags()) {
+                tags[i++] = tag.getName();
+            }
+            status = task.getStatus();
+            quadrant = quadrantOf(task.getPriority());
+            dueMillis = dueMillisOf(task);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package model;
+
+import model.exceptions.EmptyStringException;
+import model.exceptions.NullArgumentException;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Represents a query over the tasks of a TaskIndex: the conjunction of the conditions added to it.
+// A query with no conditions matches every task.
+// Note: a query is run by intersecting the index sets of its conditions, starting from the smallest, so that
+//       its cost is proportional to the number of candidates rather than to the number of tasks; with a limit,
+//       it stops as soon as enough tasks are found
+public class TaskQuery {
+    private final List<Function<TaskIndex, Set<Task>>> conditions = new ArrayList<>();
+    private long dueFrom = Long.MIN_VALUE;
+    private long dueTo = Long.MAX_VALUE;
+    private boolean dueRange;
+    private String text;
+    private int limit = Integer.MAX_VALUE;
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks having a tag with the given name; returns this
+    //  throws EmptyStringException if tagName is null or empty
+    public TaskQuery withTag(String tagName) {
+        if (tagName == null || tagName.length() == 0) {
+            throw new EmptyStringException("Tag name cannot be empty or null");
+        }
+        conditions.add(index -> index.withTag(tagName));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks with the given status; returns this
+    //  throws NullArgumentException if status is null
+    public TaskQuery withStatus(Status status) {
+        if (status == null) {
+            throw new NullArgumentException("Illegal argument: status is null");
+        }
+        conditions.add(index -> index.withStatus(status));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks exactly as important and as urgent as priority; returns this
+    //  throws NullArgumentException if priority is null
+    public TaskQuery withPriority(Priority priority) {
+        if (priority == null) {
+            throw new NullArgumentException("Illegal argument: priority is null");
+        }
+        int quadrant = TaskIndex.quadrantOf(priority);
+        conditions.add(index -> index.inQuadrant(quadrant));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks with no due date; returns this
+    public TaskQuery withoutDueDate() {
+        conditions.add(TaskIndex::withoutDueDate);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks due at or after from and before to; returns this
+    //  throws NullArgumentException if from or to is null
+    public TaskQuery dueBetween(Date from, Date to) {
+        if (from == null || to == null) {
+            throw new NullArgumentException("Illegal argument: date is null");
+        }
+        dueFrom = Math.max(dueFrom, from.getTime());
+        dueTo = Math.min(dueTo, to.getTime());
+        dueRange = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks whose description contains text, ignoring case; returns this
+    //  throws EmptyStringException if text is null or empty
+    public TaskQuery descriptionContains(String text) {
+        if (text == null || text.length() == 0) {
+            throw new EmptyStringException("Text cannot be empty or null");
+        }
+        this.text = text.toLowerCase();
+        return this;
+    }
+
+    // REQUIRES: limit > 0
+    // MODIFIES: this
+    // EFFECTS: stops this query after limit matching tasks are found; returns this
+    public TaskQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    // EFFECTS: returns the tasks of index matching this query (at most limit of them), in no particular order
+    List<Task> run(TaskIndex index) {
+        List<Set<Task>> sets = new ArrayList<>(conditions.size());
+        for (Function<TaskIndex, Set<Task>> condition : conditions) {
+            sets.add(condition.apply(index));
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+        Collection<Set<Task>> due = dueRange && dueFrom < dueTo ? index.dueBetween(dueFrom, dueTo) : null;
+        List<Task> result = new ArrayList<>();
+        if (dueRange && due == null) {
+            return result;
+        }
+        if (due != null && (sets.isEmpty() || sizeOf(due) < sets.get(0).size())) {
+            for (Iterator<Set<Task>> it = due.iterator(); it.hasNext() && result.size() < limit; ) {
+                collect(it.next(), sets, 0, result);
+            }
+        } else {
+            collect(sets.isEmpty() ? index.all() : sets.get(0), sets, 1, result);
+        }
+        return result;
+    }
+
+    // MODIFIES: result
+    // EFFECTS: adds to result the candidates that are in every set of sets from the given one and that match
+    //          the due date range and text of this query
+    private void collect(Set<Task> candidates, List<Set<Task>> sets, int from, List<Task> result) {
+        for (Iterator<Task> it = candidates.iterator(); it.hasNext() && result.size() < limit; ) {
+            Task task = it.next();
+            if (inAll(task, sets, from) && isDueInRange(task) && containsText(task)) {
+                result.add(task);
+            }
+        }
+    }
+
+    // EFFECTS: returns true if task is in every set of sets from the given one
+    private static boolean inAll(Task task, List<Set<Task>> sets, int from) {
+        for (int i = from; i < sets.size(); i++) {
+            if (!sets.get(i).contains(task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns true if this query has no due date range or task is due within it
+    private boolean isDueInRange(Task task) {
+        if (!dueRange) {
+            return true;
+        }
+        Long due = TaskIndex.dueMillisOf(task);
+        return due != null && due >= dueFrom && due < dueTo;
+    }
+
+    // EFFECTS: returns true if this query has no text or the description of task contains it, ignoring case
+    private boolean containsText(Task task) {
+        return text == null || task.getDescription().toLowerCase().contains(text);
+    }
+
+    // EFFECTS: returns the total size of sets
+    private static int sizeOf(Collection<Set<Task>> sets) {
+        int size = 0;
+        for (Set<Task> tasks : sets) {
+            size += tasks.size();
+        }
+        return size;
+    }
+}
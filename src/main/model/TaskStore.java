@@ -0,0 +1,368 @@
+package model;
+
+import model.exceptions.NullArgumentException;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Represents the tasks of the application, safe to use from any thread. Reads never lock: version() returns
+// the version of the store as of the last change, in constant time, and a version never changes afterwards.
+// Changes are made under a single lock, each publishing a new version that shares all but the chunks it changed
+// with the last one, and are passed to the listeners of the store in the order they were made, on the thread
+// that made them, while it holds the lock; a listener sees every change exactly once, so it can keep a copy of
+// the list, a journal or an index in step with the store.
+// An update runs its edit of a task under the lock too, so concurrent edits of tasks in the store never
+// interleave, and listeners only see the task once every field of the edit is set.
+// Tasks themselves can be changed in place at any time, so every version also holds a frozen copy of each task,
+// as it was when it was last added or updated: readers that must see every task as a whole, at a single point
+// in time (saves and reports, on any thread), read those.
+// Note: tasks are identified by identity, not equality; a task is in the store at most once
+// Note: the store keeps, for each of its tasks, the position it had when it was last added or found, and looks for
+//       a task outwards from there: changes before a task move it by one position each, so finding a task costs
+//       about the number of tasks added or removed before it since, rather than a scan of every task
+public class TaskStore {
+    private static final Task[] NO_TASKS = new Task[0];
+
+    // Kinds of changes
+    public enum Kind {
+        ADDED, REMOVED, UPDATED, RESET
+    }
+
+    // Receives the changes made to a store
+    public interface Listener {
+        // EFFECTS: called after change is made, on the thread that made it, while it holds the lock of the store;
+        //          must not block, nor change the store
+        void taskStoreChanged(Change change);
+    }
+
+    private final Object lock = new Object();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Task, Integer> positions = new IdentityHashMap<>();
+    private volatile Version version;
+    private long batches;
+    private int batchDepth;
+
+    // EFFECTS: constructs an empty store
+    public TaskStore() {
+        version = new Version(0, TaskVector.EMPTY);
+    }
+
+    // EFFECTS: constructs a store of tasks, in order
+    //  throws IllegalArgumentException if a task appears more than once in tasks
+    public TaskStore(Collection<Task> tasks) {
+        Task[] array = distinct(tasks);
+        remember(array, 0);
+        version = new Version(0, TaskVector.of(array));
+    }
+
+    // EFFECTS: returns the version of the store as of the last change
+    public Version version() {
+        return version;
+    }
+
+    // EFFECTS: returns the tasks in the store as of the last change; the list never changes
+    public List<Task> snapshot() {
+        return version.getTasks();
+    }
+
+    // EFFECTS: returns the number of tasks in the store
+    public int size() {
+        return version.size();
+    }
+
+    // EFFECTS: returns true if task (this exact object) is in the store
+    public boolean contains(Task task) {
+        synchronized (lock) {
+            return positions.containsKey(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds listener, which is passed every change made from now on; returns the tasks in the store
+    //          just before the first of those changes, to start from
+    public List<Task> addListener(Listener listener) {
+        synchronized (lock) {
+            listeners.add(listener);
+            return snapshot();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes listener
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds task at the end of the store; returns false if it is already in it
+    //  throws NullArgumentException if task is null
+    public boolean add(Task task) {
+        return addAll(Collections.singletonList(task));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds every task of added at the end of the store, in order, as a single change; returns false,
+    //          and adds nothing, if any of them is already in the store or appears more than once in added
+    //  throws NullArgumentException if a task is null
+    public boolean addAll(List<Task> added) {
+        synchronized (lock) {
+            return addAll(version.size(), added);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: inserts every task of added at index, in order, as a single change; returns false, and adds
+    //          nothing, if any of them is already in the store or appears more than once in added
+    //  throws IndexOutOfBoundsException if !(0 <= index <= size())
+    //  throws NullArgumentException if a task is null
+    public boolean addAll(int index, List<Task> added) {
+        if (added.contains(null)) {
+            throw new NullArgumentException("Illegal argument: task is null");
+        }
+        synchronized (lock) {
+            TaskVector old = version.tasks;
+            if (index < 0 || index > old.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + old.size());
+            }
+            if (added.isEmpty() || identitySet(added).size() != added.size()
+                    || !Collections.disjoint(positions.keySet(), added)) {
+                return false;
+            }
+            Task[] copy = added.toArray(NO_TASKS);
+            remember(copy, index);
+            for (Task task : copy) {
+                task.attachToTags();
+            }
+            publish(old.insert(index, copy), Kind.ADDED, index, Arrays.asList(copy), Collections.emptyList());
+            return true;
+        }
+    }
+
+    // MODIFIES: this, the tags of task
+    // EFFECTS: removes task from the store, and from the tasks of its tags (see Task.detachFromTags); returns
+    //          false if it is not in the store
+    public boolean remove(Task task) {
+        synchronized (lock) {
+            TaskVector old = version.tasks;
+            int index = find(old, task);
+            if (index < 0) {
+                return false;
+            }
+            positions.remove(task);
+            task.detachFromTags();
+            publish(old.remove(index), Kind.REMOVED, index, Collections.singletonList(task),
+                    Collections.singletonList(old.getFrozen(index)));
+            return true;
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: applies edit to task, under the lock of the store, and publishes the update; returns false, and
+    //          does not apply edit, if task is not in the store. If edit throws, what it changed is published
+    //          all the same, and the exception is rethrown.
+    public boolean update(Task task, Consumer<? super Task> edit) {
+        synchronized (lock) {
+            TaskVector old = version.tasks;
+            int index = find(old, task);
+            if (index < 0) {
+                return false;
+            }
+            try {
+                edit.accept(task);
+            } finally {
+                publish(old.refreeze(index), Kind.UPDATED, index, Collections.singletonList(task),
+                        Collections.singletonList(old.getFrozen(index)));
+            }
+            return true;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: publishes an update of task, changed in place by the caller; returns false if it is not in the store
+    public boolean updated(Task task) {
+        return update(task, unchanged -> { });
+    }
+
+    // MODIFIES: this, the tags of the tasks replaced
+    // EFFECTS: replaces every task in the store with tasks, in order, as a single change; the tasks no longer in
+    //          the store are removed from the tasks of their tags
+    //  throws IllegalArgumentException if a task appears more than once in tasks
+    public void setAll(Collection<Task> replacement) {
+        Task[] copy = distinct(replacement);
+        synchronized (lock) {
+            Set<Task> kept = identitySet(Arrays.asList(copy));
+            for (Task task : positions.keySet()) {
+                if (!kept.contains(task)) {
+                    task.detachFromTags();
+                }
+            }
+            for (Task task : copy) {
+                task.attachToTags();
+            }
+            positions.clear();
+            remember(copy, 0);
+            publish(TaskVector.of(copy), Kind.RESET, 0, Arrays.asList(copy), version.getTasks());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs edits under the lock of the store, as a single batch: no other thread changes the store
+    //          until they are done, and every change they make carries the same batch number, so that listeners
+    //          can take them as one (to undo them together, for instance). Batches can be nested; the changes of
+    //          inner batches belong to the outermost one.
+    public void batch(Runnable edits) {
+        synchronized (lock) {
+            if (batchDepth++ == 0) {
+                batches++;
+            }
+            try {
+                edits.run();
+            } finally {
+                batchDepth--;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes tasks the current version, then passes the change to every listener
+    private void publish(TaskVector tasks, Kind kind, int index, List<Task> changed, List<Task> before) {
+        Version next = new Version(version.number + 1, tasks);
+        version = next;
+        long batch = batchDepth > 0 ? batches : ++batches;
+        Change change = new Change(kind, index, Collections.unmodifiableList(changed), before, batch, next);
+        for (Listener listener : listeners) {
+            listener.taskStoreChanged(change);
+        }
+    }
+
+    // EFFECTS: returns tasks as an array
+    //  throws IllegalArgumentException if a task appears more than once in tasks
+    //  throws NullArgumentException if a task is null
+    private static Task[] distinct(Collection<Task> tasks) {
+        Task[] array = tasks.toArray(NO_TASKS);
+        if (Arrays.asList(array).contains(null)) {
+            throw new NullArgumentException("Illegal argument: task is null");
+        }
+        if (identitySet(Arrays.asList(array)).size() != array.length) {
+            throw new IllegalArgumentException("A task appears more than once");
+        }
+        return array;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the position of task in tasks, looking for it from where it was last, and remembers it;
+    //          returns -1 if task is not in the store
+    private int find(TaskVector tasks, Task task) {
+        Integer hint = positions.get(task);
+        if (hint == null) {
+            return -1;
+        }
+        int index = tasks.indexOf(task, hint);
+        positions.put(task, index);
+        return index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers that tasks are at the positions starting from index
+    private void remember(Task[] tasks, int index) {
+        for (int i = 0; i < tasks.length; i++) {
+            positions.put(tasks[i], index + i);
+        }
+    }
+
+    // EFFECTS: returns the tasks as a set of identities
+    private static Set<Task> identitySet(List<Task> tasks) {
+        Set<Task> set = Collections.newSetFromMap(new IdentityHashMap<>(tasks.size() * 2));
+        set.addAll(tasks);
+        return set;
+    }
+
+    // Represents a version of a store: its tasks, and frozen copies of them, as of a change; it never changes
+    public static final class Version {
+        private final long number;
+        private final TaskVector tasks;
+
+        private Version(long number, TaskVector tasks) {
+            this.number = number;
+            this.tasks = tasks;
+        }
+
+        // EFFECTS: returns the number of this version: the number of changes made to the store before it
+        public long getNumber() {
+            return number;
+        }
+
+        // EFFECTS: returns the number of tasks in this version
+        public int size() {
+            return tasks.size();
+        }
+
+        // EFFECTS: returns the tasks in this version; the tasks themselves may have changed since
+        public List<Task> getTasks() {
+            return tasks.tasks();
+        }
+
+        // EFFECTS: returns frozen copies of the tasks in this version, as they were when this version was made
+        public List<Task> getFrozenTasks() {
+            return tasks.frozenTasks();
+        }
+    }
+
+    // Represents a change made to a store: tasks added at index, the task removed from or updated at index, or
+    // every task replaced (index 0); with what it replaced, so it can be undone, and the version of the store it
+    // made
+    public static final class Change {
+        private final Kind kind;
+        private final int index;
+        private final List<Task> tasks;
+        private final List<Task> before;
+        private final long batch;
+        private final Version version;
+
+        private Change(Kind kind, int index, List<Task> tasks, List<Task> before, long batch, Version version) {
+            this.kind = kind;
+            this.index = index;
+            this.tasks = tasks;
+            this.before = before;
+            this.batch = batch;
+            this.version = version;
+        }
+
+        // EFFECTS: returns the kind of this change
+        public Kind getKind() {
+            return kind;
+        }
+
+        // EFFECTS: returns the position of the first task added, of the task removed or updated, or 0 on reset
+        public int getIndex() {
+            return index;
+        }
+
+        // EFFECTS: returns the tasks added, removed, updated, or now in the store on reset
+        public List<Task> getTasks() {
+            return tasks;
+        }
+
+        // EFFECTS: returns what this change replaced: the frozen copy of the task removed or updated, as it was
+        //          just before; the tasks in the store before a reset; nothing for an addition
+        public List<Task> getBefore() {
+            return before;
+        }
+
+        // EFFECTS: returns the number of the batch of this change; changes made outside a batch each have their own
+        public long getBatch() {
+            return batch;
+        }
+
+        // EFFECTS: returns the tasks in the store just after this change
+        public List<Task> getSnapshot() {
+            return version.getTasks();
+        }
+
+        // EFFECTS: returns the version of the store made by this change
+        public Version getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+// Represents an immutable list of tasks, each with its frozen copy, split in chunks of at most CHUNK tasks.
+// Chunks are kept at least half full (but for the last one, which appends fill): insertions split a chunk in
+// pieces of even size, and removals merge a chunk that falls below half full with a neighbour.
+// A change returns a new list sharing every chunk it does not touch with this one: it copies the array of
+// chunks (one reference per CHUNK tasks) and the chunk it changes, never the whole list, and an update only
+// copies the chunk of frozen copies. Lists are never changed, so any number of threads can read one without
+// locks, while newer ones are made.
+final class TaskVector {
+    static final int CHUNK = 64;
+    static final TaskVector EMPTY = new TaskVector(new Task[0][], new Task[0][], new int[] {0});
+
+    private final Task[][] tasks;
+    private final Task[][] frozen;
+    private final int[] starts;
+
+    // REQUIRES: tasks and frozen have chunks of the same lengths, none empty; starts[i] is the index of the first
+    //           task of chunk i, and starts[tasks.length] the number of tasks
+    private TaskVector(Task[][] tasks, Task[][] frozen, int[] starts) {
+        this.tasks = tasks;
+        this.frozen = frozen;
+        this.starts = starts;
+    }
+
+    // EFFECTS: returns the list of tasks, with frozen copies of them, in order
+    static TaskVector of(Task[] tasks) {
+        return EMPTY.append(tasks);
+    }
+
+    // EFFECTS: returns the number of tasks
+    int size() {
+        return starts[tasks.length];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the task at index
+    Task get(int index) {
+        int chunk = chunkOf(index);
+        return tasks[chunk][index - starts[chunk]];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the frozen copy of the task at index
+    Task getFrozen(int index) {
+        int chunk = chunkOf(index);
+        return frozen[chunk][index - starts[chunk]];
+    }
+
+    // EFFECTS: returns the position of task (this exact object), or -1 if it is not in this list
+    int indexOf(Task task) {
+        for (int chunk = 0; chunk < tasks.length; chunk++) {
+            int index = indexIn(chunk, task);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the position of task (this exact object), searching the chunks outwards from the one
+    //          holding hint, or -1 if it is not in this list; takes time proportional to the distance from hint to
+    //          the task, and at most that of indexOf(task)
+    int indexOf(Task task, int hint) {
+        if (tasks.length == 0) {
+            return -1;
+        }
+        int start = chunkOf(Math.max(0, Math.min(hint, size() - 1)));
+        for (int distance = 0; start - distance >= 0 || start + distance < tasks.length; distance++) {
+            int index = indexIn(start + distance, task);
+            if (index < 0 && distance > 0) {
+                index = indexIn(start - distance, task);
+            }
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns this list with added at the end, filling the last chunk first
+    TaskVector append(Task[] added) {
+        int last = tasks.length - 1;
+        int room = last < 0 ? 0 : Math.min(CHUNK - tasks[last].length, added.length);
+        int chunks = last + 1 + (added.length - room + CHUNK - 1) / CHUNK;
+        Task[][] newTasks = Arrays.copyOf(tasks, chunks);
+        Task[][] newFrozen = Arrays.copyOf(frozen, chunks);
+        int[] newStarts = Arrays.copyOf(starts, chunks + 1);
+        if (room > 0) {
+            newTasks[last] = concat(tasks[last], added, 0, room, false);
+            newFrozen[last] = concat(frozen[last], added, 0, room, true);
+        }
+        for (int chunk = last + 1, from = room; chunk < chunks; chunk++, from += CHUNK) {
+            int to = Math.min(from + CHUNK, added.length);
+            newTasks[chunk] = concat(new Task[0], added, from, to, false);
+            newFrozen[chunk] = concat(new Task[0], added, from, to, true);
+            newStarts[chunk] = size() + from;
+        }
+        newStarts[chunks] = size() + added.length;
+        return new TaskVector(newTasks, newFrozen, newStarts);
+    }
+
+    // REQUIRES: 0 <= index <= size()
+    // EFFECTS: returns this list with added inserted at index, splitting the chunk it falls in as needed
+    TaskVector insert(int index, Task[] added) {
+        if (index == size()) {
+            return append(added);
+        }
+        int chunk = chunkOf(index);
+        return replace(chunk, 1, splice(tasks[chunk], index - starts[chunk], added, false),
+                splice(frozen[chunk], index - starts[chunk], added, true));
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns this list without the task at index; if that leaves its chunk less than half full, the
+    //          chunk is merged with a neighbour
+    TaskVector remove(int index) {
+        int chunk = chunkOf(index);
+        Task[] values = without(tasks[chunk], index - starts[chunk]);
+        Task[] copies = without(frozen[chunk], index - starts[chunk]);
+        if (values.length < CHUNK / 2) {
+            if (chunk + 1 < tasks.length) {
+                return replace(chunk, 2, concat(values, tasks[chunk + 1]), concat(copies, frozen[chunk + 1]));
+            }
+            if (chunk > 0) {
+                return replace(chunk - 1, 2, concat(tasks[chunk - 1], values), concat(frozen[chunk - 1], copies));
+            }
+        }
+        if (values.length == 0) {
+            return EMPTY;
+        }
+        Task[][] newTasks = tasks.clone();
+        Task[][] newFrozen = frozen.clone();
+        newTasks[chunk] = values;
+        newFrozen[chunk] = copies;
+        int[] newStarts = starts.clone();
+        for (int i = chunk + 1; i < newStarts.length; i++) {
+            newStarts[i]--;
+        }
+        return new TaskVector(newTasks, newFrozen, newStarts);
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns this list with a new frozen copy of the task at index
+    TaskVector refreeze(int index) {
+        int chunk = chunkOf(index);
+        Task[][] newFrozen = frozen.clone();
+        newFrozen[chunk] = frozen[chunk].clone();
+        newFrozen[chunk][index - starts[chunk]] = tasks[chunk][index - starts[chunk]].frozenCopy();
+        return new TaskVector(tasks, newFrozen, starts);
+    }
+
+    // EFFECTS: returns the number of chunks of this list
+    int chunks() {
+        return tasks.length;
+    }
+
+    // EFFECTS: returns a view of the tasks of this list
+    List<Task> tasks() {
+        return new View(false);
+    }
+
+    // EFFECTS: returns a view of the frozen copies of the tasks of this list
+    List<Task> frozenTasks() {
+        return new View(true);
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the chunk holding the task at index
+    private int chunkOf(int index) {
+        int chunk = Arrays.binarySearch(starts, 0, tasks.length, index);
+        return chunk >= 0 ? chunk : -chunk - 2;
+    }
+
+    // EFFECTS: returns the position of task (this exact object) if it is in chunk, or -1 if it is not or there is
+    //          no such chunk
+    private int indexIn(int chunk, Task task) {
+        if (chunk < 0 || chunk >= tasks.length) {
+            return -1;
+        }
+        Task[] values = tasks[chunk];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == task) {
+                return starts[chunk] + i;
+            }
+        }
+        return -1;
+    }
+
+    // REQUIRES: values and copies are the tasks, and their frozen copies, that chunks [first, first + count) are to
+    //           hold instead
+    // EFFECTS: returns this list with chunks [first, first + count) replaced by values, split in as few pieces of
+    //          even size as fit in chunks
+    private TaskVector replace(int first, int count, Task[] values, Task[] copies) {
+        int pieces = (values.length + CHUNK - 1) / CHUNK;
+        int delta = values.length - (starts[first + count] - starts[first]);
+        Task[][] newTasks = new Task[tasks.length - count + pieces][];
+        Task[][] newFrozen = new Task[newTasks.length][];
+        int[] newStarts = new int[newTasks.length + 1];
+        System.arraycopy(tasks, 0, newTasks, 0, first);
+        System.arraycopy(frozen, 0, newFrozen, 0, first);
+        System.arraycopy(starts, 0, newStarts, 0, first);
+        for (int piece = 0; piece < pieces; piece++) {
+            int from = (int) ((long) values.length * piece / pieces);
+            int to = (int) ((long) values.length * (piece + 1) / pieces);
+            newTasks[first + piece] = Arrays.copyOfRange(values, from, to);
+            newFrozen[first + piece] = Arrays.copyOfRange(copies, from, to);
+            newStarts[first + piece] = starts[first] + from;
+        }
+        System.arraycopy(tasks, first + count, newTasks, first + pieces, tasks.length - first - count);
+        System.arraycopy(frozen, first + count, newFrozen, first + pieces, tasks.length - first - count);
+        for (int i = first + count; i < starts.length; i++) {
+            newStarts[i - count + pieces] = starts[i] + delta;
+        }
+        return new TaskVector(newTasks, newFrozen, newStarts);
+    }
+
+    // EFFECTS: returns head followed by tail
+    private static Task[] concat(Task[] head, Task[] tail) {
+        Task[] result = Arrays.copyOf(head, head.length + tail.length);
+        System.arraycopy(tail, 0, result, head.length, tail.length);
+        return result;
+    }
+
+    // EFFECTS: returns chunk followed by added[from..to), or their frozen copies if freeze
+    private static Task[] concat(Task[] chunk, Task[] added, int from, int to, boolean freeze) {
+        Task[] result = Arrays.copyOf(chunk, chunk.length + to - from);
+        for (int i = from; i < to; i++) {
+            result[chunk.length + i - from] = freeze ? added[i].frozenCopy() : added[i];
+        }
+        return result;
+    }
+
+    // EFFECTS: returns chunk with added, or their frozen copies if freeze, inserted at offset
+    private static Task[] splice(Task[] chunk, int offset, Task[] added, boolean freeze) {
+        Task[] result = new Task[chunk.length + added.length];
+        System.arraycopy(chunk, 0, result, 0, offset);
+        for (int i = 0; i < added.length; i++) {
+            result[offset + i] = freeze ? added[i].frozenCopy() : added[i];
+        }
+        System.arraycopy(chunk, offset, result, offset + added.length, chunk.length - offset);
+        return result;
+    }
+
+    // EFFECTS: returns array without its element at index
+    private static <T> T[] without(T[] array, int index) {
+        T[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    // Represents a read-only view of the tasks, or of their frozen copies, of this list
+    private final class View extends AbstractList<Task> implements RandomAccess {
+        private final boolean frozenCopies;
+
+        private View(boolean frozenCopies) {
+            this.frozenCopies = frozenCopies;
+        }
+
+        @Override
+        public Task get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+            }
+            return frozenCopies ? getFrozen(index) : TaskVector.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return TaskVector.this.size();
+        }
+
+        // EFFECTS: returns an iterator walking the chunks in order, without looking up each index
+        @Override
+        public Iterator<Task> iterator() {
+            Task[][] chunks = frozenCopies ? frozen : tasks;
+            return new Iterator<Task>() {
+                private int chunk;
+                private int offset;
+
+                @Override
+                public boolean hasNext() {
+                    return chunk < chunks.length;
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = chunks[chunk][offset++];
+                    if (offset == chunks[chunk].length) {
+                        chunk++;
+                        offset = 0;
+                    }
+                    return task;
+                }
+            };
+        }
+    }
+}
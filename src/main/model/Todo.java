@@ -2,13 +2,22 @@ package model;
 
 import model.exceptions.NullArgumentException;
 
-import java.util.Observable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
-public abstract class Todo extends Observable {
+// Represents a task or project, which publishes its changes to its listeners.
+// Note: listeners are kept in an array that is replaced, never changed, when one is added or removed (by compare
+//       and set, without a lock), so publishing a change reads the array as it is and allocates nothing
+public abstract class Todo {
+    private static final TodoListener[] NO_LISTENERS = new TodoListener[0];
+    private static final AtomicReferenceFieldUpdater<Todo, TodoListener[]> LISTENERS =
+            AtomicReferenceFieldUpdater.newUpdater(Todo.class, TodoListener[].class, "listeners");
     protected String description;
     protected int progress;
     protected int etcHours;  // Estimated Time To Complete
     protected Priority priority;
+    private boolean frozen;
+    private volatile TodoListener[] listeners = NO_LISTENERS;
 
     // MODIFIES: this
     // EFFECTS: sets the "description" using the given description
@@ -34,11 +43,15 @@ public abstract class Todo extends Observable {
     // MODIFIES: this
     // EFFECTS: sets the priority of the task or project
     //   throws NullArgumentException when priority is null
+    // Note: projects file their tasks by priority; change a task's priority through this method rather than
+    //       by mutating the object returned by getPriority()
     public void setPriority(Priority priority) {
         if (priority == null) {
             throw new NullArgumentException("Illegal argument: priority is null");
         }
+        checkNotFrozen();
         this.priority = priority;
+        publishChange(new TodoChange(TodoChange.Field.PRIORITY));
     }
 
     // EFFECTS: return a non-negative integer as the Estimated Time To Complete
@@ -49,4 +62,85 @@ public abstract class Todo extends Observable {
     // EFFECTS: returns an integer between 0 and 100 which represents
     //     the percentage of completion (rounded down to the closest integer).
     public abstract int getProgress();
+
+    // EFFECTS: returns true if this is a frozen copy, which cannot be changed
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this unchangeable: every setter throws from now on
+    protected void freeze() {
+        frozen = true;
+    }
+
+    // EFFECTS: throws UnsupportedOperationException if this is frozen
+    protected void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Cannot change a frozen copy of " + description);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds listener to the listeners of this, if it is not one of them already (this exact object)
+    //   throws NullArgumentException when listener is null
+    public void addListener(TodoListener listener) {
+        if (listener == null) {
+            throw new NullArgumentException("Illegal argument: listener is null");
+        }
+        TodoListener[] current;
+        TodoListener[] updated;
+        do {
+            current = listeners;
+            if (indexOf(current, listener) >= 0) {
+                return;
+            }
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = listener;
+        } while (!LISTENERS.compareAndSet(this, current, updated));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes listener (this exact object) from the listeners of this, if it is one of them
+    public void removeListener(TodoListener listener) {
+        TodoListener[] current;
+        TodoListener[] updated;
+        do {
+            current = listeners;
+            int index = indexOf(current, listener);
+            if (index < 0) {
+                return;
+            }
+            updated = current.length == 1 ? NO_LISTENERS : new TodoListener[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, updated.length - index);
+        } while (!LISTENERS.compareAndSet(this, current, updated));
+    }
+
+    // EFFECTS: returns the number of listeners of this
+    public int countListeners() {
+        return listeners.length;
+    }
+
+    // EFFECTS: notifies the listeners of this of change, most recently added first; does nothing if change is
+    //          empty
+    protected void publishChange(TodoChange change) {
+        TodoListener[] current = listeners;
+        if (change.isEmpty()) {
+            return;
+        }
+        for (int i = current.length - 1; i >= 0; i--) {
+            current[i].todoChanged(this, change);
+        }
+    }
+
+    // EFFECTS: returns the index of listener (this exact object) in array, or -1 if it is not in it
+    private static int indexOf(TodoListener[] array, TodoListener listener) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+// Represents a change to a to-do, published to its listeners: which of its fields changed and,
+// for estimated time to complete and progress, by how much (new value - old value)
+public class TodoChange {
+    // Fields of a to-do whose changes are published
+    public enum Field {
+        DESCRIPTION, PRIORITY, ESTIMATED_TIME, PROGRESS, STATUS, DUE_DATE, TAGS
+    }
+
+    private final Set<Field> fields;
+    private final int estimatedTimeDelta;
+    private final int progressDelta;
+
+    // EFFECTS: constructs a change of estimatedTimeDelta hours and progressDelta percent
+    public TodoChange(int estimatedTimeDelta, int progressDelta) {
+        fields = EnumSet.noneOf(Field.class);
+        if (estimatedTimeDelta != 0) {
+            fields.add(Field.ESTIMATED_TIME);
+        }
+        if (progressDelta != 0) {
+            fields.add(Field.PROGRESS);
+        }
+        this.estimatedTimeDelta = estimatedTimeDelta;
+        this.progressDelta = progressDelta;
+    }
+
+    // REQUIRES: field is neither ESTIMATED_TIME nor PROGRESS
+    // EFFECTS: constructs a change of field
+    public TodoChange(Field field) {
+        fields = EnumSet.of(field);
+        estimatedTimeDelta = 0;
+        progressDelta = 0;
+    }
+
+    // EFFECTS: returns the fields that changed
+    public Set<Field> getFields() {
+        return Collections.unmodifiableSet(fields);
+    }
+
+    // EFFECTS: returns true if field changed
+    public boolean changed(Field field) {
+        return fields.contains(field);
+    }
+
+    // EFFECTS: returns the change in estimated time to complete, in hours
+    public int getEstimatedTimeDelta() {
+        return estimatedTimeDelta;
+    }
+
+    // EFFECTS: returns the change in progress, in percent
+    public int getProgressDelta() {
+        return progressDelta;
+    }
+
+    // EFFECTS: returns true if no field changed
+    public boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "TodoChange" + fields + "[estimated time " + estimatedTimeDelta + ", progress " + progressDelta + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TodoChange)) {
+            return false;
+        }
+        TodoChange change = (TodoChange) o;
+        return estimatedTimeDelta == change.estimatedTimeDelta && progressDelta == change.progressDelta
+                && fields.equals(change.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fields, estimatedTimeDelta, progressDelta);
+    }
+}
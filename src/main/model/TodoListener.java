@@ -0,0 +1,7 @@
+package model;
+
+// Represents a listener to the changes of to-dos
+public interface TodoListener {
+    // EFFECTS: called on the thread that changed todo, after it changed as described by change (never empty)
+    void todoChanged(Todo todo, TodoChange change);
+}
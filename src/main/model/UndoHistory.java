@@ -0,0 +1,210 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+// Represents the undo and redo history of a task store. It records the changes the store publishes, which tell
+// what they replaced (the frozen copy of a task before it was removed or updated; the tasks before a reset), so
+// each step keeps only references to what it needs to be undone, never a copy of the list; changes of the same
+// batch of the store are undone and redone together, as one step. Undoing a step makes the inverse changes,
+// in a batch of their own, and those are what redoing it undoes in turn.
+// The history is bounded by a memory budget, in estimated bytes: once over it, the oldest steps are forgotten.
+// A new change (neither an undo nor a redo) clears the steps that could be redone.
+public class UndoHistory implements TaskStore.Listener {
+    public static final long DEFAULT_BUDGET_BYTES = 32 << 20;
+    static final long ENTRY_BYTES = 48;
+    static final long REFERENCE_BYTES = 8;
+    static final long TASK_BYTES = 320;
+
+    private enum Replay {
+        NONE, UNDO, REDO
+    }
+
+    private final TaskStore store;
+    private final long budgetBytes;
+    private final Deque<Step> undoSteps = new ArrayDeque<>();
+    private final Deque<Step> redoSteps = new ArrayDeque<>();
+    private Replay replay = Replay.NONE;
+    private long bytes;
+    private long forgottenBatch = -1;
+
+    // EFFECTS: constructs an empty history of store, recording every change made to it from now on, within
+    //          budgetBytes of memory (as estimated)
+    public UndoHistory(TaskStore store, long budgetBytes) {
+        this.store = store;
+        this.budgetBytes = budgetBytes;
+        store.addListener(this);
+    }
+
+    // EFFECTS: returns true if there is a step to undo
+    public synchronized boolean canUndo() {
+        return !undoSteps.isEmpty();
+    }
+
+    // EFFECTS: returns true if there is a step to redo
+    public synchronized boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    // EFFECTS: returns the number of steps that can be undone
+    public synchronized int getUndoCount() {
+        return undoSteps.size();
+    }
+
+    // EFFECTS: returns the number of steps that can be redone
+    public synchronized int getRedoCount() {
+        return redoSteps.size();
+    }
+
+    // EFFECTS: returns the memory held by the history, as estimated
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    // MODIFIES: this, store
+    // EFFECTS: undoes the last step, as a batch of the store; returns false if there is none
+    public boolean undo() {
+        return replay(Replay.UNDO);
+    }
+
+    // MODIFIES: this, store
+    // EFFECTS: redoes the last step undone, as a batch of the store; returns false if there is none
+    public boolean redo() {
+        return replay(Replay.REDO);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets every step
+    public synchronized void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+        bytes = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records change in the step of its batch, on the undo steps, or on the redo steps if it is made
+    //          by an undo
+    @Override
+    public synchronized void taskStoreChanged(TaskStore.Change change) {
+        if (change.getBatch() == forgottenBatch) {
+            return;
+        }
+        if (replay == Replay.NONE) {
+            forget(redoSteps, redoSteps.size());
+        }
+        Deque<Step> steps = replay == Replay.UNDO ? redoSteps : undoSteps;
+        Step step = steps.peekLast();
+        if (step == null || step.batch != change.getBatch()) {
+            step = new Step(change.getBatch());
+            steps.addLast(step);
+        }
+        Entry entry = new Entry(change);
+        step.entries.add(entry);
+        step.bytes += entry.bytes;
+        bytes += entry.bytes;
+        trim(change.getBatch());
+    }
+
+    // MODIFIES: this, store
+    // EFFECTS: undoes the last undo step (or redo step, to redo it) in a batch of the store, recording the
+    //          inverse changes on the other side; returns false if there is no such step
+    // Note: takes the lock of the store before that of the history, as the store does when it calls listeners
+    private boolean replay(Replay kind) {
+        boolean[] replayed = new boolean[1];
+        store.batch(() -> {
+            synchronized (this) {
+                Step step = (kind == Replay.UNDO ? undoSteps : redoSteps).pollLast();
+                if (step == null) {
+                    return;
+                }
+                bytes -= step.bytes;
+                replay = kind;
+                try {
+                    for (int i = step.entries.size() - 1; i >= 0; i--) {
+                        step.entries.get(i).undo(store);
+                    }
+                } finally {
+                    replay = Replay.NONE;
+                }
+                replayed[0] = true;
+            }
+        });
+        return replayed[0];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the oldest steps, undo steps first, until the history is within its budget; if the step of
+    //          batch is forgotten, ignores the rest of its changes
+    private void trim(long batch) {
+        while (bytes > budgetBytes && !(undoSteps.isEmpty() && redoSteps.isEmpty())) {
+            Deque<Step> steps = undoSteps.isEmpty() ? redoSteps : undoSteps;
+            if (steps.peekFirst().batch == batch) {
+                forgottenBatch = batch;
+            }
+            forget(steps, 1);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the count oldest of steps
+    private void forget(Deque<Step> steps, int count) {
+        for (int i = 0; i < count; i++) {
+            bytes -= steps.pollFirst().bytes;
+        }
+    }
+
+    // Represents the changes of a batch of the store
+    private static final class Step {
+        private final long batch;
+        private final List<Entry> entries = new ArrayList<>(1);
+        private long bytes;
+
+        private Step(long batch) {
+            this.batch = batch;
+        }
+    }
+
+    // Represents a change recorded in a step: what it changed, and what it replaced
+    private static final class Entry {
+        private final TaskStore.Kind kind;
+        private final int index;
+        private final List<Task> tasks;
+        private final List<Task> before;
+        private final long bytes;
+
+        // EFFECTS: constructs an entry for change; the tasks before a reset are copied, so that the entry does not
+        //          hold on to the previous version of the store
+        private Entry(TaskStore.Change change) {
+            kind = change.getKind();
+            index = change.getIndex();
+            tasks = kind == TaskStore.Kind.RESET ? Collections.emptyList() : change.getTasks();
+            before = kind == TaskStore.Kind.RESET ? new ArrayList<>(change.getBefore()) : change.getBefore();
+            bytes = ENTRY_BYTES + REFERENCE_BYTES * (tasks.size() + before.size())
+                    + (kind == TaskStore.Kind.ADDED || kind == TaskStore.Kind.RESET ? 0 : TASK_BYTES);
+        }
+
+        // MODIFIES: store
+        // EFFECTS: makes the inverse of this change in store
+        private void undo(TaskStore store) {
+            switch (kind) {
+                case ADDED:
+                    for (Task task : tasks) {
+                        store.remove(task);
+                    }
+                    break;
+                case REMOVED:
+                    store.addAll(Math.min(index, store.size()), tasks);
+                    store.update(tasks.get(0), task -> task.restore(before.get(0)));
+                    break;
+                case UPDATED:
+                    store.update(tasks.get(0), task -> task.restore(before.get(0)));
+                    break;
+                default:
+                    store.setAll(before);
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package parsers;
+
+import parsers.exceptions.ParsingException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// Represents a pull tokenizer over JSON text read from a Reader.
+// Values are consumed one token at a time through a fixed-size buffer, so the
+// input never has to be held in memory as a whole.
+public class JsonTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    // Kinds of token that can be at the head of the input
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder text = new StringBuilder();
+    private int pos;
+    private int limit;
+    private int depth;
+
+    // EFFECTS: constructs a tokenizer reading from in
+    public JsonTokenizer(Reader in) {
+        this.in = in;
+    }
+
+    // EFFECTS: returns the number of objects and arrays that are currently open
+    public int getDepth() {
+        return depth;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the kind of the next token without consuming it
+    //   throws ParsingException if the next character cannot start a token
+    public Token peek() throws IOException, ParsingException {
+        int c = peekSignificant();
+        switch (c) {
+            case -1: return Token.END_DOCUMENT;
+            case '{': return Token.BEGIN_OBJECT;
+            case '}': return Token.END_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case ']': return Token.END_ARRAY;
+            case '"': return Token.STRING;
+            case 't':
+            case 'f': return Token.BOOLEAN;
+            case 'n': return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return Token.NUMBER;
+                }
+                throw new ParsingException("Unexpected character in JSON input: " + (char) c);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the current object or array has another element
+    public boolean hasNext() throws IOException, ParsingException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the opening brace of an object
+    //   throws ParsingException if the next token is not the start of an object
+    public void beginObject() throws IOException, ParsingException {
+        expect('{');
+        depth++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the closing brace of an object
+    //   throws ParsingException if the next token is not the end of an object
+    public void endObject() throws IOException, ParsingException {
+        expect('}');
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the opening bracket of an array
+    //   throws ParsingException if the next token is not the start of an array
+    public void beginArray() throws IOException, ParsingException {
+        expect('[');
+        depth++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the closing bracket of an array
+    //   throws ParsingException if the next token is not the end of an array
+    public void endArray() throws IOException, ParsingException {
+        expect(']');
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the name of the next member of an object, along with its colon
+    //   throws ParsingException if the next token is not a member name
+    public String nextName() throws IOException, ParsingException {
+        String name = nextString();
+        if (peekSignificant() != ':') {
+            throw new ParsingException("Expected ':' after member name " + name);
+        }
+        pos++;
+        return name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next string value, resolving escape sequences
+    //   throws ParsingException if the next token is not a string
+    public String nextString() throws IOException, ParsingException {
+        expect('"');
+        text.setLength(0);
+        int c = read();
+        while (c != '"') {
+            if (c == -1) {
+                throw new ParsingException("Unterminated string in JSON input");
+            }
+            text.append(c == '\\' ? readEscape() : (char) c);
+            c = read();
+        }
+        return text.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next integer value
+    //   throws ParsingException if the next token is not an integer
+    public int nextInt() throws IOException, ParsingException {
+        if (peek() != Token.NUMBER) {
+            throw new ParsingException("Expected a number in JSON input");
+        }
+        readLiteral();
+        try {
+            return Integer.parseInt(text.toString());
+        } catch (NumberFormatException e) {
+            throw new ParsingException("Not an integer: " + text);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next boolean value
+    //   throws ParsingException if the next token is not a boolean
+    public boolean nextBoolean() throws IOException, ParsingException {
+        if (peek() != Token.BOOLEAN) {
+            throw new ParsingException("Expected a boolean in JSON input");
+        }
+        readLiteral();
+        if (equalsText("true")) {
+            return true;
+        } else if (equalsText("false")) {
+            return false;
+        }
+        throw new ParsingException("Not a boolean: " + text);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next null value
+    //   throws ParsingException if the next token is not null
+    public void nextNull() throws IOException, ParsingException {
+        if (peek() != Token.NULL) {
+            throw new ParsingException("Expected null in JSON input");
+        }
+        readLiteral();
+        if (!equalsText("null")) {
+            throw new ParsingException("Not null: " + text);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next value, including any nested objects and arrays
+    //   throws ParsingException if there is no value to consume
+    public void skipValue() throws IOException, ParsingException {
+        Token token = peek();
+        if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+            int target = depth;
+            pos++;
+            depth++;
+            skipTo(target);
+        } else if (token == Token.STRING) {
+            nextString();
+        } else if (token == Token.END_DOCUMENT || token == Token.END_OBJECT || token == Token.END_ARRAY) {
+            throw new ParsingException("No value to skip in JSON input");
+        } else {
+            readLiteral();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes input until the nesting depth drops back to target, or until the input ends;
+    //          used to resynchronise after a malformed value
+    public void skipTo(int target) throws IOException {
+        while (depth > target) {
+            int c = read();
+            if (c == -1) {
+                return;
+            } else if (c == '"') {
+                skipString();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next significant character, which must be c
+    //   throws ParsingException if the next significant character is not c
+    private void expect(char c) throws IOException, ParsingException {
+        int next = peekSignificant();
+        if (next != c) {
+            throw new ParsingException("Expected '" + c + "' in JSON input");
+        }
+        pos++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and element separators; returns the next character without consuming it,
+    //          or -1 at the end of the input
+    private int peekSignificant() throws IOException {
+        while (pos < limit || fill()) {
+            char c = buffer[pos];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == ',') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character, or -1 at the end of the input
+    private int read() throws IOException {
+        if (pos < limit || fill()) {
+            return buffer[pos++];
+        }
+        return -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills the buffer; returns false if the input is exhausted
+    private boolean fill() throws IOException {
+        limit = in.read(buffer, 0, buffer.length);
+        pos = 0;
+        if (limit < 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes an escape sequence (after its backslash) and returns the character it denotes
+    private char readEscape() throws IOException, ParsingException {
+        int c = read();
+        switch (c) {
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u': return readUnicodeEscape();
+            case '"':
+            case '\\':
+            case '/': return (char) c;
+            default: throw new ParsingException("Invalid escape sequence in JSON input");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the four hex digits of a \\u escape and returns the character they denote
+    private char readUnicodeEscape() throws IOException, ParsingException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw new ParsingException("Invalid unicode escape in JSON input");
+            }
+            value = (value << 4) + digit;
+        }
+        return (char) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the remainder of a string whose opening quote has been read
+    private void skipString() throws IOException {
+        int c = read();
+        while (c != '"' && c != -1) {
+            if (c == '\\') {
+                read();
+            }
+            c = read();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a bare literal (number, true, false or null) into text
+    private void readLiteral() throws IOException {
+        text.setLength(0);
+        while (pos < limit || fill()) {
+            char c = buffer[pos];
+            if (c == ',' || c == '}' || c == ']' || c == ':' || Character.isWhitespace(c)) {
+                return;
+            }
+            text.append(c);
+            pos++;
+        }
+    }
+
+    // EFFECTS: returns true if the most recently read literal is equal to literal
+    private boolean equalsText(String literal) {
+        return text.length() == literal.length() && text.indexOf(literal) == 0;
+    }
+}
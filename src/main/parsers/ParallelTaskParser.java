@@ -0,0 +1,150 @@
+package parsers;
+
+import model.Task;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+// Represents a parser of large JSONArrays of tasks that parses chunks of the array concurrently.
+// One sequential pass finds the boundaries between the elements of the array; the array is split at those
+// boundaries into chunks of about chunkBytes bytes, which are parsed on a ForkJoinPool. The chunks are merged
+// in the order of the input as they complete, and malformed elements are skipped exactly as TaskReader skips
+// them. Tags are added to the tasks as they are merged, on the calling thread.
+public class ParallelTaskParser {
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 16;
+    private static final byte[] OPEN = {'['};
+    private static final byte[] CLOSE = {']'};
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+
+    // EFFECTS: constructs a parser running on the common ForkJoinPool with chunks of DEFAULT_CHUNK_BYTES
+    public ParallelTaskParser() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    // REQUIRES: chunkBytes > 0
+    // EFFECTS: constructs a parser running on pool that splits its input into chunks of about chunkBytes bytes
+    public ParallelTaskParser(ForkJoinPool pool, int chunkBytes) {
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+    }
+
+    // EFFECTS: returns the well-formed tasks in the UTF-8 encoded JSONArray held in bytes, in order;
+    //          input that is not a JSONArray is treated as having no tasks, and input whose brackets
+    //          do not balance is parsed sequentially
+    public List<Task> parse(byte[] bytes) {
+        List<Task> tasks = new ArrayList<>();
+        parse(bytes, tasks::addAll);
+        return tasks;
+    }
+
+    // EFFECTS: parses the tasks in bytes as parse(bytes) does, and passes them to batches one chunk at a time,
+    //          in order, as soon as the chunk and every chunk before it are parsed
+    public void parse(byte[] bytes, Consumer<List<Task>> batches) {
+        int[] bounds = split(bytes);
+        if (bounds == null) {
+            batches.accept(new TaskParser().parse(new String(bytes, StandardCharsets.UTF_8)));
+            return;
+        }
+        List<ForkJoinTask<Chunk>> chunks = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            int from = bounds[i];
+            int to = bounds[i + 1];
+            chunks.add(pool.submit(() -> parseChunk(bytes, from, to)));
+        }
+        for (ForkJoinTask<Chunk> chunk : chunks) {
+            batches.accept(chunk.join().toTasks());
+        }
+    }
+
+    // EFFECTS: returns the offsets at which to split the array in bytes: the first follows its opening
+    //          bracket, the last is its closing bracket, and the others are separators between elements;
+    //          returns an empty array if bytes is not an array, or null if its brackets do not balance
+    private int[] split(byte[] bytes) {
+        int start = 0;
+        while (start < bytes.length && Character.isWhitespace(bytes[start])) {
+            start++;
+        }
+        if (start == bytes.length || bytes[start] != '[') {
+            return new int[0];
+        }
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(start + 1);
+        int end = scan(bytes, start + 1, bounds);
+        if (end < 0) {
+            return null;
+        }
+        bounds.add(end);
+        int[] result = new int[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    // MODIFIES: bounds
+    // EFFECTS: scans the elements of the array starting at from, adding to bounds the offset of a separator
+    //          at least every chunkBytes bytes; returns the offset of the closing bracket of the array,
+    //          or -1 if there is none
+    private int scan(byte[] bytes, int from, List<Integer> bounds) {
+        int depth = 1;
+        int last = from;
+        boolean inString = false;
+        for (int i = from; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (inString) {
+                i += b == '\\' ? 1 : 0;
+                inString = b != '"';
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+                if (depth == 0) {
+                    return b == ']' ? i : -1;
+                }
+            } else if (b == ',' && depth == 1 && i - last >= chunkBytes) {
+                bounds.add(i);
+                last = i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the well-formed tasks in the elements of the array held in bytes[from, to),
+    //          without their tags, along with the names of their tags
+    private static Chunk parseChunk(byte[] bytes, int from, int to) {
+        InputStream elements = new SequenceInputStream(new ByteArrayInputStream(OPEN),
+                new SequenceInputStream(new ByteArrayInputStream(bytes, from, to - from),
+                        new ByteArrayInputStream(CLOSE)));
+        Chunk chunk = new Chunk();
+        TaskParser parser = new TaskParser(chunk.tagNames);
+        TaskReader reader = new TaskReader(new InputStreamReader(elements, StandardCharsets.UTF_8), parser);
+        reader.forEachRemaining(chunk.tasks::add);
+        return chunk;
+    }
+
+    // Represents the tasks parsed from a chunk, and the names of the tags of each
+    private static class Chunk {
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<String[]> tagNames = new ArrayList<>();
+
+        // MODIFIES: the tasks in this chunk
+        // EFFECTS: adds its tags to each task in this chunk and returns the tasks, in order
+        private List<Task> toTasks() {
+            for (int i = 0; i < tasks.size(); i++) {
+                for (String tagName : tagNames.get(i)) {
+                    tasks.get(i).addTag(tagName);
+                }
+            }
+            return tasks;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package parsers;
+
+import model.Task;
+import parsers.exceptions.ParsingException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Represents a streaming reader over a JSONArray of tasks; each task is parsed only when it is requested,
+// so callers can start using the first tasks before the rest of the input has been read.
+// Any task that cannot be parsed due to malformed JSON data is skipped.
+public class TaskReader implements Iterator<Task>, Closeable {
+    private final JsonTokenizer tokenizer;
+    private final TaskParser parser;
+    private Task next;
+    private boolean started;
+    private boolean finished;
+
+    // EFFECTS: constructs a task reader over the JSONArray read from in
+    public TaskReader(Reader in) {
+        this(in, new TaskParser());
+    }
+
+    // EFFECTS: constructs a task reader over the JSONArray read from in, parsing tasks with parser
+    TaskReader(Reader in, TaskParser parser) {
+        tokenizer = new JsonTokenizer(in);
+        this.parser = parser;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if there is another well-formed task in the input
+    //   throws UncheckedIOException if the input cannot be read
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next well-formed task in the input
+    //   throws NoSuchElementException if there are no more tasks
+    @Override
+    public Task next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Task task = next;
+        next = null;
+        return task;
+    }
+
+    // EFFECTS: returns a sequential, ordered stream over the remaining tasks; closing the stream closes this
+    public Stream<Task> stream() {
+        Spliterator<Task> spliterator =
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::closeUnchecked);
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        tokenizer.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next well-formed task, or null if the input has no more tasks;
+    //          input that is not a JSONArray is treated as having no tasks
+    private Task readNext() {
+        try {
+            if (!started) {
+                started = true;
+                tokenizer.beginArray();
+            }
+            while (tokenizer.hasNext()) {
+                Task task = tryParseTask();
+                if (task != null) {
+                    return task;
+                }
+            }
+        } catch (ParsingException e) {
+            // the array itself is malformed: no more tasks can be recovered
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finished = true;
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: parses the next element of the array as a task; returns null if it is malformed,
+    //          in which case the rest of the element is skipped
+    private Task tryParseTask() throws IOException {
+        int depth = tokenizer.getDepth();
+        try {
+            return parser.parseTask(tokenizer);
+        } catch (ParsingException | RuntimeException e) {
+            tokenizer.skipTo(depth);
+            return null;
+        }
+    }
+
+    // EFFECTS: closes this, rethrowing any IOException unchecked
+    private void closeUnchecked() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -7,12 +7,14 @@ import model.Tag;
 import model.Task;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import utility.Metrics;
 
 import java.util.Calendar;
 import java.util.List;
 
 // Converts model elements to JSON objects
 public class Jsonifier {
+    private static final Metrics.Histogram taskListToJsonTimes = Metrics.histogram("jsonifier.taskListToJson");
 
     // EFFECTS: returns JSON representation of tag
     public static JSONObject tagToJson(Tag tag) {
@@ -66,6 +68,7 @@ public class Jsonifier {
 
     // EFFECTS: returns JSON array representing list of tasks
     public static JSONArray taskListToJson(List<Task> tasks) {
+        long start = System.nanoTime();
         JSONArray tasksJson = new JSONArray();
         if (tasks.size() != 0) {
             for (Task t : tasks) {
@@ -73,6 +76,7 @@ public class Jsonifier {
                 tasksJson.put(taskJson);
             }
         }
+        taskListToJsonTimes.recordSince(start);
         return tasksJson;
     }
 }
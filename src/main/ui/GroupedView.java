@@ -0,0 +1,37 @@
+package ui;
+
+import controller.GroupedViewController;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.layout.StackPane;
+
+import java.io.File;
+import java.io.IOException;
+
+// Grouped View: Tasks are listed in groups (by priority or by status), one group expanded at a time
+// Only the rows in sight are materialized; the view follows changes made to the groups
+public class GroupedView extends StackPane {
+    private static final String FXML = "resources/fxml/GroupedView.fxml";
+    private File fxmlFile = new File(FXML);
+    private TaskGroups groups;
+    private String[] titles;
+    
+    // REQUIRES: groups != null AND titles has one title per group
+    // MODIFIES: this
+    public GroupedView(TaskGroups groups, String... titles) {
+        this.groups = groups;
+        this.titles = titles;
+        this.load();
+    }
+    
+    private void load() {
+        try {
+            FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
+            fxmlLoader.setRoot(this);
+            fxmlLoader.load();
+            GroupedViewController controller = fxmlLoader.<GroupedViewController>getController();
+            controller.setData(groups, titles);
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
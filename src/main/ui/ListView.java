@@ -1,23 +1,24 @@
 package ui;
 
 import controller.ListViewController;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.layout.StackPane;
 import model.Task;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
 
 // List View: Tasks are listed (in no particular order)
+// Only the rows in sight are materialized; the view follows changes made to the list of tasks
 public class ListView extends StackPane {
     private static final String FXML = "resources/fxml/ListView.fxml";
     private File fxmlFile = new File(FXML);
-    private List<Task> tasks;
+    private ObservableList<Task> tasks;
     
     // REQUIRES: task != null
     // MODIFIES: this
-    public ListView(List<Task> tasks) {
+    public ListView(ObservableList<Task> tasks) {
         this.tasks = tasks;
         this.load();
     }
@@ -1,31 +1,78 @@
 package ui;
 
+import controller.TodobarController;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCombination;
 import javafx.stage.Stage;
+import model.SearchIndex;
 import model.Task;
+import model.TaskStore;
+import model.UndoHistory;
+import utility.FlightEvents;
 import utility.JsonFileIO;
+import utility.Logger;
+import utility.Metrics;
+import utility.PomodoroEngine;
+import utility.ReminderService;
+import utility.SessionLog;
+import utility.WriteBehindSaver;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 // The PomoTODO GUI Application
 public class PomoTodoApp extends Application {
     public static final String TITLE = "PomoTODO";
     public static final double WIDTH = 520;
     public static final double HEIGHT = 800;
-    private static List<Task> tasks = new ArrayList<>();
+    public static final long SHUTDOWN_TIMEOUT_MS = 10000;
+    public static final long LOG_FILE_BYTES = 1 << 20;
+    public static final int LOG_FILE_BACKUPS = 3;
+    public static final KeyCombination UNDO_KEYS = KeyCombination.keyCombination("Shortcut+Z");
+    public static final KeyCombination REDO_KEYS = KeyCombination.keyCombination("Shortcut+Shift+Z");
+    private static TaskStore store = new TaskStore();
+    private static ObservableList<Task> tasks = new TaskListMirror(store).getTasks();
+    private static FilteredList<Task> shown = new FilteredList<>(tasks);
+    private static SearchIndex searchIndex;
+    private static ReminderService reminders = new ReminderService(new Reminders(),
+            ReminderService.DEFAULT_LEAD_MILLIS);
+    private static IntegerProperty overdueCount = new SimpleIntegerProperty();
+    private static PomodoroEngine pomodoros = new PomodoroEngine(new Pomodoros(), Platform::runLater,
+            new SessionLog(SessionLog.DEFAULT_FILE));
+    private static WriteBehindSaver saver;
+    private static UndoHistory history;
     private static Stage primaryStage;
+    private static ListView listView;
+    private static GroupedView priorityView;
+    private static GroupedView statusView;
+    private static String searchText = "";
+    private static TaskLoader loader;
     
-    public static void main(String[] args) {
-        try {
-            tasks = JsonFileIO.read();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    // EFFECTS: starts the application; messages are logged at the level named by the system property
+    //          pomotodo.logLevel (INFO by default), and to the file named by pomotodo.logFile as well, if set
+    public static void main(String[] args) throws IOException {
+        Logger.setLevel(Logger.Level.valueOf(System.getProperty("pomotodo.logLevel", "INFO")));
+        String logFile = System.getProperty("pomotodo.logFile");
+        if (logFile != null) {
+            Logger.setFile(new File(logFile), LOG_FILE_BYTES, LOG_FILE_BACKUPS);
         }
-
+        JsonFileIO.setParallelLoad(Runtime.getRuntime().availableProcessors() > 1);
         launch(args);
     }
     
@@ -41,27 +88,247 @@ public class PomoTodoApp extends Application {
         primaryStage = stage;
     }
     
-    // EFFECTS: returns the list of tasks in this PomoTODO APP
-    public static List<Task> getTasks() {
+    // EFFECTS: returns the store of the tasks in this PomoTODO App; tasks are added, edited and removed through
+    //          it, from any thread, and the views follow it on the JavaFX application thread
+    public static TaskStore getStore() {
+        return store;
+    }
+    
+    // EFFECTS: returns the tasks of the store, as the views show them; the list can only be read, and follows
+    //          the store on the JavaFX application thread
+    public static ObservableList<Task> getTasks() {
         return tasks;
     }
     
+    // EFFECTS: returns the number of tasks that are overdue and not done, kept up to date on the JavaFX
+    //          application thread
+    public static ReadOnlyIntegerProperty overdueCountProperty() {
+        return overdueCount;
+    }
+    
+    // EFFECTS: returns the engine running the Pomodoros of the tasks; the work done is credited to the tasks
+    //          on the JavaFX application thread
+    public static PomodoroEngine getPomodoroEngine() {
+        return pomodoros;
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: shows only the tasks whose description has, for every word of text, a word starting with it;
+    //          shows every task if text has no words or the tasks are not loaded yet
+    // Note: the tasks found are a fixed set, so the search is run again whenever the tasks change (see
+    //       indexChanges), for tasks added or edited since to show, or not, as they now match
+    public static void search(String text) {
+        searchText = text;
+        if (searchIndex == null || SearchIndex.tokenize(text).length == 0) {
+            shown.setPredicate(null);
+            return;
+        }
+        Set<Task> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        found.addAll(searchIndex.search(text));
+        shown.setPredicate(found::contains);
+    }
+    
+    // EFFECTS: returns the text of the last search
+    public static String getSearchText() {
+        return searchText;
+    }
+    
+    // EFFECTS: returns true once every task is loaded; until then, tasks must not be added, edited or removed
+    public static boolean isLoaded() {
+        return loader != null && loader.isLoaded();
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: undoes the last change made to the tasks, or the last batch of changes (such as a deletion);
+    //          does nothing until the tasks are loaded, as loading them cannot be undone
+    public static void undo() {
+        if (history == null || !history.undo()) {
+            Logger.log("PomoTodoApp", "Nothing to undo.");
+        }
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: redoes the last change undone
+    public static void redo() {
+        if (history == null || !history.redo()) {
+            Logger.log("PomoTodoApp", "Nothing to redo.");
+        }
+    }
+    
     // REQUIRES: primaryStage != null AND root != null
+    // EFFECTS: shows root in the primary stage, reusing its scene if it has one; UNDO_KEYS and REDO_KEYS undo and
+    //          redo in every view
     public static void setScene(Parent root) {
+        FlightEvents.Span event = FlightEvents.begin(FlightEvents.Type.SCENE_CHANGE);
         try {
-            Scene scene = new Scene(root, WIDTH, HEIGHT);
+            Scene scene = primaryStage.getScene();
+            if (scene == null) {
+                scene = new Scene(root, WIDTH, HEIGHT);
+                scene.getAccelerators().put(UNDO_KEYS, PomoTodoApp::undo);
+                scene.getAccelerators().put(REDO_KEYS, PomoTodoApp::redo);
+                primaryStage.setScene(scene);
+            } else {
+                scene.setRoot(root);
+            }
             primaryStage.setTitle(TITLE);
-            primaryStage.setScene(scene);
             primaryStage.show();
         } catch (Exception e) {
             System.out.println("Failed to load new Scene!");
         }
+        event.commit(root.getClass().getSimpleName());
+    }
+    
+    // REQUIRES: primaryStage != null
+    // EFFECTS: shows the list view of the tasks matching the last search, creating it on first use
+    public static void showListView() {
+        if (listView == null) {
+            listView = new ListView(shown);
+        }
+        setScene(listView);
+    }
+    
+    // REQUIRES: primaryStage != null
+    // EFFECTS: shows the tasks matching the last search grouped by the quadrant of their priority, creating the
+    //          view and its groups on first use; the groups then follow the tasks
+    public static void showPriorityView() {
+        if (priorityView == null) {
+            priorityView = new GroupedView(TaskGroups.byPriority(shown),
+                    "Important & Urgent", "Important", "Urgent", "Default");
+        }
+        setScene(priorityView);
+    }
+    
+    // REQUIRES: primaryStage != null
+    // EFFECTS: shows the tasks matching the last search grouped by status, creating the view and its groups
+    //          on first use; the groups then follow the tasks
+    public static void showStatusView() {
+        if (statusView == null) {
+            statusView = new GroupedView(TaskGroups.byStatus(shown), "To Do", "Up Next", "In Progress", "Done");
+        }
+        setScene(statusView);
     }
     
     // EFFECTS: Application starts here!
+    //          shows the list view at once, and fills it as the tasks are loaded in the background
     @Override
     public void start(Stage primaryStage) throws Exception {
         setPrimaryStage(primaryStage);
-        setScene(new ListView(tasks));
+        tasks.addListener(PomoTodoApp::indexChanges);
+        registerGauges();
+        reminders.start();
+        showListView();
+        loader = new TaskLoader(store, tasks);
+        loader.start(() -> {
+            searchIndex = JsonFileIO.getSearchIndex();
+            search(searchText);
+            saver = new WriteBehindSaver();
+            store.addListener(saver);
+            history = new UndoHistory(store, UndoHistory.DEFAULT_BUDGET_BYTES);
+        });
+    }
+    
+    // EFFECTS: registers the gauges of the application: the number of tasks, of saves queued, of Pomodoros
+    //          running, the memory held by the undo history and the number of log messages dropped
+    private static void registerGauges() {
+        Metrics.gauge("app.tasks", store::size);
+        Metrics.gauge("app.savesQueued", () -> saver == null ? 0 : saver.getQueueDepth());
+        Metrics.gauge("app.pomodorosRunning", pomodoros::getRunningCount);
+        Metrics.gauge("app.undoBytes", () -> history == null ? 0 : history.getBytes());
+        Metrics.gauge("logger.dropped", Logger::getDroppedCount);
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: removes the tasks removed from the list from the search index and reminders, and adds the tasks
+    //          added to it (a task edited in the store is removed and added again, so its description is read again),
+    //          then runs the last search again; the search index is read along with the tasks, and so only
+    //          follows the list once they are loaded
+    private static void indexChanges(ListChangeListener.Change<? extends Task> change) {
+        while (change.next()) {
+            for (Task task : change.getRemoved()) {
+                reminders.remove(task);
+                if (searchIndex != null) {
+                    searchIndex.remove(task);
+                }
+            }
+            for (Task task : change.getAddedSubList()) {
+                reminders.add(task);
+                if (searchIndex != null) {
+                    searchIndex.add(task);
+                }
+            }
+        }
+        overdueCount.set(reminders.getOverdueCount());
+        if (searchIndex != null && shown.getPredicate() != null) {
+            search(searchText);
+        }
+    }
+    
+    // EFFECTS: stops the running Pomodoros and finishes every pending save when the application exits; the work
+    //          done in the Pomodoros is credited on this thread, as updates of the store (see Pomodoros), before
+    //          the saver shuts down
+    @Override
+    public void stop() throws Exception {
+        Logger.log("PomoTodoApp", Todobar.getStatistics());
+        reminders.stop();
+        pomodoros.shutdown(SHUTDOWN_TIMEOUT_MS);
+        Metrics.stopExport();
+        if (saver != null) {
+            saver.shutdown(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+    
+    // Reports reminders in the log, and updates the count of overdue tasks when a task becomes overdue
+    private static class Reminders implements ReminderService.Listener {
+        @Override
+        public void taskDueSoon(Task task) {
+            Logger.info("Reminders", "Due within the hour: %s", task.getDescription());
+        }
+        
+        @Override
+        public void taskOverdue(Task task) {
+            Logger.info("Reminders", "Overdue: %s", task.getDescription());
+            Platform.runLater(() -> overdueCount.set(reminders.getOverdueCount()));
+        }
+    }
+    
+    // Refreshes the Todobars of the tasks whose Pomodoro ticked or ended at most once per pulse, however many
+    // Pomodoros tick, and credits the work done as updates of the store, so that it is shown and saved
+    private static class Pomodoros implements PomodoroEngine.Listener {
+        private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+        private final Queue<Task> changed = new ConcurrentLinkedQueue<>();
+        
+        @Override
+        public void ticked(PomodoroEngine.Pomodoro pomodoro) {
+            scheduleRefresh(pomodoro.getTask());
+        }
+        
+        @Override
+        public void phaseEnded(PomodoroEngine.Pomodoro pomodoro, PomodoroEngine.Phase phase, boolean completed) {
+            Logger.info("Pomodoros", "%s %s: %s", phase, completed ? "ended" : "stopped",
+                    pomodoro.getTask().getDescription());
+            scheduleRefresh(pomodoro.getTask());
+        }
+        
+        @Override
+        public void creditWork(Task task, Consumer<Task> credit) {
+            store.update(task, credit);
+        }
+        
+        // EFFECTS: refreshes the Todobars of task on the next pulse, with those of the other tasks changed since
+        //          the last one; schedules the refresh unless it is already scheduled
+        private void scheduleRefresh(Task task) {
+            changed.add(task);
+            if (refreshScheduled.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    refreshScheduled.set(false);
+                    Set<Task> refreshed = Collections.newSetFromMap(new IdentityHashMap<>());
+                    for (Task t = changed.poll(); t != null; t = changed.poll()) {
+                        if (refreshed.add(t)) {
+                            TodobarController.refreshPomodoro(t);
+                        }
+                    }
+                });
+            }
+        }
     }
 }
@@ -0,0 +1,27 @@
+package ui;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.layout.StackPane;
+
+import java.io.File;
+import java.io.IOException;
+
+// Settings UI: shows a snapshot of the metrics, and turns their periodic export on and off
+public class Settings extends StackPane {
+    private static final String FXML = "resources/fxml/Settings.fxml";
+    private File fxmlFile = new File(FXML);
+    
+    public Settings() {
+        this.load();
+    }
+    
+    private void load() {
+        try {
+            FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
+            fxmlLoader.setRoot(this);
+            fxmlLoader.load();
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ui;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import model.Status;
+import model.Task;
+import model.TaskIndex;
+import model.Todo;
+import model.TodoChange;
+import model.TodoListener;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+// Represents the tasks of a list arranged in groups, by a group number computed from each task; within a group,
+// tasks are in the order they were added. The groups follow the list, and observe the tasks so that a task moves
+// to its new group when the field it is grouped by changes; nothing is regrouped from scratch, so a view of the
+// groups is ready as soon as it is shown. A task set again at its index in the list (as done after an edit) is
+// moved to its new group if that changed, and otherwise keeps its place.
+public class TaskGroups implements TodoListener {
+    private final ToIntFunction<Task> groupOf;
+    private final TodoChange.Field field;
+    private final List<ObservableList<Task>> groups;
+    private final Map<Task, Integer> groupOfTask = new IdentityHashMap<>();
+
+    // REQUIRES: groupOf returns a group number in [0, groupCount) for every task, computed from field
+    // EFFECTS: constructs the groups of tasks, and follows the changes made to the list and to its tasks
+    public TaskGroups(ObservableList<Task> tasks, int groupCount, ToIntFunction<Task> groupOf,
+                      TodoChange.Field field) {
+        this.groupOf = groupOf;
+        this.field = field;
+        groups = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            groups.add(FXCollections.observableArrayList());
+        }
+        for (Task task : tasks) {
+            add(task);
+        }
+        tasks.addListener(this::onChanged);
+    }
+
+    // EFFECTS: returns the tasks of tasks grouped by the quadrant of their priority (important & urgent first)
+    public static TaskGroups byPriority(ObservableList<Task> tasks) {
+        return new TaskGroups(tasks, 4, task -> TaskIndex.quadrantOf(task.getPriority()),
+                TodoChange.Field.PRIORITY);
+    }
+
+    // EFFECTS: returns the tasks of tasks grouped by status, in the order of Status
+    public static TaskGroups byStatus(ObservableList<Task> tasks) {
+        return new TaskGroups(tasks, Status.values().length, task -> task.getStatus().ordinal(),
+                TodoChange.Field.STATUS);
+    }
+
+    // EFFECTS: returns the number of groups
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    // REQUIRES: 0 <= group < getGroupCount()
+    // EFFECTS: returns the tasks of group; it is not to be changed other than through the list of tasks
+    public ObservableList<Task> getGroup(int group) {
+        return groups.get(group);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the task that published change to its new group, if the field it is grouped by changed
+    @Override
+    public void todoChanged(Todo todo, TodoChange change) {
+        if (groupOfTask.containsKey(todo) && change.changed(field)) {
+            refile((Task) todo);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the tasks removed from the list from their groups, and adds the tasks added to it; a task
+    //          both removed and added (set again at its index) is only moved if its group changed
+    private void onChanged(ListChangeListener.Change<? extends Task> change) {
+        while (change.next()) {
+            Set<Task> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            removed.addAll(change.getRemoved());
+            for (Task task : change.getAddedSubList()) {
+                if (removed.remove(task)) {
+                    refile(task);
+                } else {
+                    add(task);
+                }
+            }
+            for (Task task : removed) {
+                remove(task);
+            }
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: adds task at the end of its group, if it is not already in a group
+    private void add(Task task) {
+        if (!groupOfTask.containsKey(task)) {
+            int group = groupOf.applyAsInt(task);
+            groupOfTask.put(task, group);
+            groups.get(group).add(task);
+            task.addListener(this);
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: removes task from its group
+    private void remove(Task task) {
+        Integer group = groupOfTask.remove(task);
+        if (group != null) {
+            removeFrom(groups.get(group), task);
+            task.removeListener(this);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves task to the end of its new group, if its group changed
+    private void refile(Task task) {
+        int group = groupOf.applyAsInt(task);
+        int old = groupOfTask.put(task, group);
+        if (old != group) {
+            removeFrom(groups.get(old), task);
+            groups.get(group).add(task);
+        }
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: removes task itself (not a task equal to it) from tasks
+    private static void removeFrom(List<Task> tasks, Task task) {
+        for (int i = tasks.size() - 1; i >= 0; i--) {
+            if (tasks.get(i) == task) {
+                tasks.remove(i);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ui;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.Task;
+import model.TaskStore;
+import utility.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps an observable list of tasks, for the views, in step with a task store, on the JavaFX application thread.
+// A change made on that thread while no other change waits is applied at once, so an edit shows as soon as it is
+// saved; other changes are queued and applied together on the next pulse, with additions that follow on from each
+// other merged into a single one, so that a store filled from a background thread costs the views one change per
+// pulse.
+public class TaskListMirror implements TaskStore.Listener {
+    private final ObservableList<Task> tasks = FXCollections.observableArrayList();
+    private final ObservableList<Task> readOnly = FXCollections.unmodifiableObservableList(tasks);
+    private final Queue<TaskStore.Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // EFFECTS: constructs a mirror of store, starting from the tasks it has now
+    public TaskListMirror(TaskStore store) {
+        tasks.setAll(store.addListener(this));
+    }
+
+    // EFFECTS: returns the tasks of the store as of the last change applied; the list can only be read
+    public ObservableList<Task> getTasks() {
+        return readOnly;
+    }
+
+    @Override
+    public void taskStoreChanged(TaskStore.Change change) {
+        if (Platform.isFxApplicationThread() && pending.isEmpty()) {
+            apply(change.getKind(), change.getIndex(), change.getTasks());
+            return;
+        }
+        pending.add(change);
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies every queued change to the list, merging additions that follow on from each other
+    private void drain() {
+        drainScheduled.set(false);
+        List<Task> added = new ArrayList<>();
+        int addedAt = 0;
+        for (TaskStore.Change change = pending.poll(); change != null; change = pending.poll()) {
+            boolean adding = change.getKind() == TaskStore.Kind.ADDED;
+            if (!added.isEmpty() && !(adding && change.getIndex() == addedAt + added.size())) {
+                tasks.addAll(addedAt, added);
+                added.clear();
+            }
+            if (!adding) {
+                apply(change.getKind(), change.getIndex(), change.getTasks());
+                continue;
+            }
+            if (added.isEmpty()) {
+                addedAt = change.getIndex();
+            }
+            added.addAll(change.getTasks());
+        }
+        if (!added.isEmpty()) {
+            tasks.addAll(addedAt, added);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies a change of kind at index, of changed, to the list
+    private void apply(TaskStore.Kind kind, int index, List<Task> changed) {
+        switch (kind) {
+            case ADDED:
+                tasks.addAll(index, changed);
+                break;
+            case REMOVED:
+                tasks.remove(index);
+                break;
+            case UPDATED:
+                tasks.set(index, changed.get(0));
+                break;
+            case RESET:
+                tasks.setAll(changed);
+                break;
+            default:
+                Logger.warn("TaskListMirror", "Unknown change: %s", kind);
+        }
+    }
+}
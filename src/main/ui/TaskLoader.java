@@ -0,0 +1,95 @@
+package ui;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import model.Task;
+import model.TaskStore;
+import utility.JsonFileIO;
+import utility.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+// Loads the tasks of the application into the task store on a background thread, in batches as they are
+// decoded; the views follow the store through its mirror, which adds the batches that arrive between two pulses
+// of the JavaFX application thread together. Logs the time from the start of the program to the first paint of
+// tasks and to the end of loading.
+public class TaskLoader {
+    private final TaskStore store;
+    private final ObservableList<Task> shown;
+    private final long startMillis;
+    private boolean loaded;
+
+    // EFFECTS: constructs a loader adding the tasks it loads to store, whose tasks are shown as shown
+    public TaskLoader(TaskStore store, ObservableList<Task> shown) {
+        this.store = store;
+        this.shown = shown;
+        startMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    // REQUIRES: called on the JavaFX application thread, at most once
+    // EFFECTS: starts loading the tasks on a background thread; onLoaded is run on the JavaFX application
+    //          thread once every task is shown. If the tasks cannot be read, the failure is logged
+    //          and onLoaded is never run.
+    public void start(Runnable onLoaded) {
+        shown.addListener(new ListChangeListener<Task>() {
+            @Override
+            public void onChanged(Change<? extends Task> change) {
+                shown.removeListener(this);
+                logFirstPaint();
+            }
+        });
+        Thread thread = new Thread(() -> load(onLoaded), "task-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // EFFECTS: returns true once every task is shown
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // MODIFIES: store
+    // EFFECTS: reads the tasks into the store in batches, replacing them with every task read if the journal
+    //          changed the tasks read from the snapshot
+    // Note: the mirror of the store posts its changes to the JavaFX application thread before finish is posted,
+    //       and runnables run in the order they are posted, so every task is shown by the time finish runs
+    private void load(Runnable onLoaded) {
+        try {
+            List<Task> all = JsonFileIO.read(store::addAll);
+            if (JsonFileIO.getReplayedRecordCount() > 0) {
+                store.setAll(all);
+            }
+            Platform.runLater(() -> finish(onLoaded));
+        } catch (IOException | RuntimeException e) {
+            Logger.error("TaskLoader", "Failed to load tasks; they cannot be changed in this session: %s", e);
+        }
+    }
+
+    // EFFECTS: logs the time of the next pulse, which paints the first tasks
+    private void logFirstPaint() {
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                Logger.info("TaskLoader", "Time to first paint: %d ms (%d tasks)", elapsedMillis(), shown.size());
+            }
+        }.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the tasks loaded and runs onLoaded
+    private void finish(Runnable onLoaded) {
+        loaded = true;
+        Logger.info("TaskLoader", "Time to fully loaded: %d ms (%d tasks)", elapsedMillis(), store.size());
+        onLoaded.run();
+    }
+
+    // EFFECTS: returns the time elapsed since the program started, in milliseconds
+    private long elapsedMillis() {
+        return System.currentTimeMillis() - startMillis;
+    }
+}
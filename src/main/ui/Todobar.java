@@ -4,6 +4,8 @@ import controller.TodobarController;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.layout.VBox;
 import model.Task;
+import utility.Logger;
+import utility.Metrics;
 
 import java.io.File;
 import java.io.IOException;
@@ -11,23 +13,64 @@ import java.io.IOException;
 // Each task is presented in a Todobar
 public class Todobar extends VBox {
     private static final String FXML = "resources/fxml/Todobar.fxml";
+    private static final int ROWS_PER_REPORT = 25;
+    private static final Metrics.Histogram buildTimes = Metrics.histogram("todobar.build");
+    private static int built;
+    private static long totalBuildNanos;
+    private static long maxBuildNanos;
     private File fxmlFile = new File(FXML);
-    private Task task;
+    private TodobarController controller;
     
     public Todobar(Task task) {
-        this.task = task;
         load();
+        setTask(task);
+    }
+    
+    // EFFECTS: constructs a Todobar showing no task yet, to be reused for different tasks
+    public Todobar() {
+        load();
+    }
+    
+    // REQUIRES: task != null
+    // MODIFIES: this
+    // EFFECTS: shows task in this Todobar
+    public void setTask(Task task) {
+        controller.setTask(task);
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: stops showing a task in this Todobar
+    public void clearTask() {
+        controller.clearTask();
+    }
+    
+    // EFFECTS: returns a summary of the time taken to build a Todobar
+    public static String getStatistics() {
+        return String.format("%d Todobars built, mean %.2f ms, max %.2f ms",
+                built, built == 0 ? 0 : totalBuildNanos / (built * 1e6), maxBuildNanos / 1e6);
     }
     
     private void load() {
+        long start = System.nanoTime();
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
             fxmlLoader.setRoot(this);
             fxmlLoader.load();
-            TodobarController controller = fxmlLoader.<TodobarController>getController();
-            controller.setTask(task);
+            controller = fxmlLoader.<TodobarController>getController();
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
+        recordBuildTime(System.nanoTime() - start);
+    }
+    
+    // EFFECTS: adds a Todobar taking the given time to build to the statistics
+    private static void recordBuildTime(long nanos) {
+        buildTimes.record(nanos);
+        built++;
+        totalBuildNanos += nanos;
+        maxBuildNanos = Math.max(maxBuildNanos, nanos);
+        if (built % ROWS_PER_REPORT == 0) {
+            Logger.log("Todobar", getStatistics());
+        }
     }
 }
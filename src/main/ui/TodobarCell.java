@@ -0,0 +1,36 @@
+package ui;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import model.Task;
+
+// A row of the list view: shows its task in a Todobar that is built once and reused
+// as the row is recycled for other tasks
+public class TodobarCell extends ListCell<Task> {
+    private Todobar todobar;
+
+    // MODIFIES: this
+    // EFFECTS: constructs an empty row
+    public TodobarCell() {
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows task in this row, or nothing if empty
+    @Override
+    protected void updateItem(Task task, boolean empty) {
+        super.updateItem(task, empty);
+        if (empty || task == null) {
+            if (todobar != null) {
+                todobar.clearTask();
+            }
+            setGraphic(null);
+        } else {
+            if (todobar == null) {
+                todobar = new Todobar();
+            }
+            todobar.setTask(task);
+            setGraphic(todobar);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package utility;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.Tag;
+import model.Task;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Compact binary snapshot of a list of tasks, read through a memory-mapped buffer.
+// Layout (big-endian):
+//   header      magic, version, task count, tag reference count, string count (HEADER_SIZE bytes)
+//   records     one fixed-width record per task (RECORD_SIZE bytes):
+//               description string index, due date millis (NO_DUE_DATE if none), priority bits,
+//               status ordinal, tag count, index of first tag reference
+//   tag refs    string index of each tag name, grouped by task
+//   strings     offset table (string count + 1 ints) followed by UTF-8 data; descriptions and
+//               tag names share the table, and equal strings are stored once
+public class BinaryTaskFile {
+    public static final int MAGIC = 0x50544442;  // "PTDB"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 20;
+    public static final int RECORD_SIZE = 20;
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+    private static final Status[] STATUSES = Status.values();
+
+    private final ByteBuffer buffer;
+    private final int taskCount;
+    private final int tagRefStart;
+    private final int stringTableStart;
+    private final int stringDataStart;
+    private final String[] strings;
+
+    // REQUIRES: buffer holds a snapshot in this format, positioned at its start
+    // EFFECTS: constructs a decoder over buffer
+    //   throws IOException if buffer does not start with a supported header
+    private BinaryTaskFile(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary task file");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported binary task file version " + buffer.getShort(4));
+        }
+        this.buffer = buffer;
+        taskCount = buffer.getInt(8);
+        int tagRefCount = buffer.getInt(12);
+        strings = new String[buffer.getInt(16)];
+        tagRefStart = HEADER_SIZE + taskCount * RECORD_SIZE;
+        stringTableStart = tagRefStart + tagRefCount * 4;
+        stringDataStart = stringTableStart + (strings.length + 1) * 4;
+    }
+
+    // EFFECTS: memory-maps file and returns the tasks it contains, in order;
+    //          if checksum is not null, it is updated with the content of the file
+    //   throws IOException if file cannot be read, is not a binary task file, or is truncated or corrupt
+    public static List<Task> read(File file, CRC32 checksum) throws IOException {
+        try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (checksum != null) {
+                checksum.update(mapped.duplicate());
+            }
+            return new BinaryTaskFile(mapped).decode();
+        } catch (RuntimeException e) {
+            throw new IOException("Binary task file " + file + " is truncated or corrupt", e);
+        }
+    }
+
+    // MODIFIES: file
+    // EFFECTS: writes tasks to file and returns the checksum of the bytes written
+    public static long write(File file, List<Task> tasks) throws IOException {
+        Encoder encoder = new Encoder(tasks);
+        FileOutputStream out = new FileOutputStream(file);
+        CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32());
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16))) {
+            encoder.writeTo(data);
+            data.flush();
+            out.getFD().sync();
+        }
+        return checked.getChecksum().getValue();
+    }
+
+    // EFFECTS: returns the tasks in the buffer, in order
+    private List<Task> decode() {
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(decodeTask(HEADER_SIZE + i * RECORD_SIZE));
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns the task whose record starts at offset
+    private Task decodeTask(int offset) {
+        Task task = new Task(string(buffer.getInt(offset)));
+        int tagCount = buffer.getShort(offset + 14) & 0xFFFF;
+        int firstTagRef = tagRefStart + buffer.getInt(offset + 16) * 4;
+        for (int i = 0; i < tagCount; i++) {
+            task.addTag(string(buffer.getInt(firstTagRef + i * 4)));
+        }
+        long dueDate = buffer.getLong(offset + 4);
+        task.setDueDate(dueDate == NO_DUE_DATE ? null : new DueDate(new Date(dueDate)));
+        task.setPriority(toPriority(buffer.get(offset + 12)));
+        task.setStatus(STATUSES[buffer.get(offset + 13)]);
+        return task;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the string at index in the string table, decoding it on first use
+    //   throws IllegalStateException if its offsets are out of order
+    private String string(int index) {
+        String s = strings[index];
+        if (s == null) {
+            int start = buffer.getInt(stringTableStart + index * 4);
+            int end = buffer.getInt(stringTableStart + (index + 1) * 4);
+            if (start < 0 || end < start) {
+                throw new IllegalStateException("String " + index + " has offsets " + start + " to " + end);
+            }
+            byte[] bytes = new byte[end - start];
+            ByteBuffer data = buffer.duplicate();
+            data.position(stringDataStart + start);
+            data.get(bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = s;
+        }
+        return s;
+    }
+
+    // EFFECTS: returns the priority encoded by bits
+    private static Priority toPriority(byte bits) {
+        Priority priority = new Priority();
+        priority.setImportant((bits & 1) != 0);
+        priority.setUrgent((bits & 2) != 0);
+        return priority;
+    }
+
+    // EFFECTS: returns the bits encoding priority
+    private static byte toBits(Priority priority) {
+        return (byte) ((priority.isImportant() ? 1 : 0) | (priority.isUrgent() ? 2 : 0));
+    }
+
+    // Represents the string table and tag references of a list of tasks being written
+    private static class Encoder {
+        private final List<Task> tasks;
+        private final Map<String, Integer> stringIndex = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        private final List<Integer> tagRefs = new ArrayList<>();
+        private int stringBytes;
+
+        // EFFECTS: builds the string table and tag references of tasks
+        private Encoder(List<Task> tasks) {
+            this.tasks = tasks;
+            for (Task t : tasks) {
+                intern(t.getDescription());
+                for (Tag tag : t.getTags()) {
+                    tagRefs.add(intern(tag.getName()));
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the index of s in the string table, adding it if absent
+        private int intern(String s) {
+            Integer index = stringIndex.get(s);
+            if (index == null) {
+                index = strings.size();
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                strings.add(bytes);
+                stringBytes += bytes.length;
+                stringIndex.put(s, index);
+            }
+            return index;
+        }
+
+        // MODIFIES: out
+        // EFFECTS: writes the snapshot to out
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeInt(tasks.size());
+            out.writeInt(tagRefs.size());
+            out.writeInt(strings.size());
+            writeRecords(out);
+            for (int ref : tagRefs) {
+                out.writeInt(ref);
+            }
+            writeStrings(out);
+        }
+
+        // MODIFIES: out
+        // EFFECTS: writes the fixed-width record of each task to out
+        private void writeRecords(DataOutputStream out) throws IOException {
+            int tagRef = 0;
+            for (Task t : tasks) {
+                out.writeInt(stringIndex.get(t.getDescription()));
+                out.writeLong(t.getDueDate() == null ? NO_DUE_DATE : t.getDueDate().getDate().getTime());
+                out.writeByte(toBits(t.getPriority()));
+                out.writeByte(t.getStatus().ordinal());
+                out.writeShort(t.getTags().size());
+                out.writeInt(tagRef);
+                tagRef += t.getTags().size();
+            }
+        }
+
+        // MODIFIES: out
+        // EFFECTS: writes the string offset table and string data to out
+        private void writeStrings(DataOutputStream out) throws IOException {
+            int offset = 0;
+            for (byte[] s : strings) {
+                out.writeInt(offset);
+                offset += s.length;
+            }
+            out.writeInt(offset);
+            for (byte[] s : strings) {
+                out.write(s);
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package utility;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Emits the custom Java Flight Recorder events of PomoTODO (category "PomoTODO"), so that a recording shows
+// task loads and saves, scene changes and project rollups alongside GC and I/O. Each event is timed from
+// begin to commit, and only recorded while a recording has it enabled.
+// The application is built for Java 8, whose API has no jdk.jfr, so the event types are defined at run time
+// through jdk.jfr.EventFactory, reflectively; on a runtime without it (or with JFR disabled), every event is
+// a no-op.
+public class FlightEvents {
+    // Types of events, with their fields (a name and a type each)
+    public enum Type {
+        TASK_LOAD("pomotodo.TaskLoad", "Task Load", "Tasks read from the snapshot and journal",
+                "tasks", int.class, "bytes", long.class),
+        TASK_SAVE("pomotodo.TaskSave", "Task Save", "Tasks written to the snapshot",
+                "tasks", int.class, "bytes", long.class),
+        SCENE_CHANGE("pomotodo.SceneChange", "Scene Change", "Root of the primary stage replaced",
+                "scene", String.class),
+        PROJECT_UPDATE("pomotodo.ProjectUpdate", "Project Update", "Project rollup published after a change",
+                "project", String.class, "tasks", int.class);
+
+        private final String name;
+        private final String label;
+        private final String description;
+        private final Object[] fields;
+        private Object factory;
+        private Object eventType;
+        private volatile boolean enabled;
+        private volatile boolean checked;
+        private volatile long checkedAt;
+
+        Type(String name, String label, String description, Object... fields) {
+            this.name = name;
+            this.label = label;
+            this.description = description;
+            this.fields = fields;
+        }
+    }
+
+    private static final Span NO_SPAN = new Span(null);
+    private static final long RECHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static Method newEvent;
+    private static Method isEnabled;
+    private static Method begin;
+    private static Method end;
+    private static Method shouldCommit;
+    private static Method set;
+    private static Method commit;
+    private static volatile boolean available;
+
+    static {
+        try {
+            define();
+            available = true;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            available = false;
+        }
+    }
+
+    // EFFECTS: returns true if events are emitted, i.e. the runtime has Java Flight Recorder
+    public static boolean isAvailable() {
+        return available;
+    }
+
+    // EFFECTS: returns true if events of type are enabled in a recording, as last checked at most a second ago;
+    //          unlike begin, it neither allocates nor calls into the flight recorder, so hot paths can call it
+    //          before building the values of an event
+    // Note: a recording started less than a second ago may miss the events guarded by it
+    public static boolean isEnabled(Type type) {
+        if (!available) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (!type.checked || now - type.checkedAt > RECHECK_NANOS) {
+            try {
+                type.enabled = (Boolean) isEnabled.invoke(type.eventType);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                disable(e);
+                return false;
+            }
+            type.checkedAt = now;
+            type.checked = true;
+        }
+        return type.enabled;
+    }
+
+    // EFFECTS: begins an event of type, to be committed with its values once the work it times is done;
+    //          returns a span that does nothing if the event is not enabled in any recording
+    public static Span begin(Type type) {
+        if (!available) {
+            return NO_SPAN;
+        }
+        try {
+            if (!(Boolean) isEnabled.invoke(type.eventType)) {
+                return NO_SPAN;
+            }
+            Object event = newEvent.invoke(type.factory);
+            begin.invoke(event);
+            return new Span(event);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            disable(e);
+            return NO_SPAN;
+        }
+    }
+
+    // EFFECTS: defines and registers every type of event with the flight recorder
+    //  throws ReflectiveOperationException if the runtime has no flight recorder
+    private static void define() throws ReflectiveOperationException {
+        Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+        Class<?> event = Class.forName("jdk.jfr.Event");
+        newEvent = eventFactory.getMethod("newEvent");
+        isEnabled = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+        begin = event.getMethod("begin");
+        end = event.getMethod("end");
+        shouldCommit = event.getMethod("shouldCommit");
+        set = event.getMethod("set", int.class, Object.class);
+        commit = event.getMethod("commit");
+        Method create = eventFactory.getMethod("create", List.class, List.class);
+        for (Type type : Type.values()) {
+            List<Object> annotations = Arrays.asList(annotation("Name", type.name),
+                    annotation("Label", type.label), annotation("Description", type.description),
+                    annotation("Category", new String[] {"PomoTODO"}));
+            type.factory = create.invoke(null, annotations, fieldsOf(type));
+            eventFactory.getMethod("register").invoke(type.factory);
+            type.eventType = eventFactory.getMethod("getEventType").invoke(type.factory);
+        }
+    }
+
+    // EFFECTS: returns the descriptors of the fields of type
+    private static List<Object> fieldsOf(Type type) throws ReflectiveOperationException {
+        Constructor<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor")
+                .getConstructor(Class.class, String.class, List.class);
+        List<Object> fields = new ArrayList<>();
+        for (int i = 0; i < type.fields.length; i += 2) {
+            String name = (String) type.fields[i];
+            List<Object> label = Collections.singletonList(annotation("Label", name));
+            fields.add(valueDescriptor.newInstance(type.fields[i + 1], name, label));
+        }
+        return fields;
+    }
+
+    // EFFECTS: returns the jdk.jfr annotation element of the annotation named name, with value
+    @SuppressWarnings("unchecked")
+    private static Object annotation(String name, Object value) throws ReflectiveOperationException {
+        Class<? extends Annotation> annotation = (Class<? extends Annotation>) Class.forName("jdk.jfr." + name);
+        return Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class)
+                .newInstance(annotation, value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops emitting events after failure
+    private static void disable(Exception failure) {
+        available = false;
+        Logger.warn("FlightEvents", "Flight recorder events disabled: %s", failure);
+    }
+
+    // Represents an event that has begun and is yet to be committed
+    public static final class Span {
+        private final Object event;
+
+        private Span(Object event) {
+            this.event = event;
+        }
+
+        // REQUIRES: values are the values of the fields of the type of this event, in order
+        // EFFECTS: ends this event and records it with values, if it passes the thresholds of the recording
+        public void commit(Object... values) {
+            if (event == null) {
+                return;
+            }
+            try {
+                end.invoke(event);
+                if ((Boolean) shouldCommit.invoke(event)) {
+                    for (int i = 0; i < values.length; i++) {
+                        set.invoke(event, i, values[i]);
+                    }
+                    commit.invoke(event);
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                disable(e);
+            }
+        }
+    }
+}
@@ -1,41 +1,307 @@
 package utility;
 
+import model.SearchIndex;
 import model.Task;
 import org.json.JSONArray;
-import parsers.TaskParser;
+import parsers.ParallelTaskParser;
+import parsers.TaskReader;
 import persistence.Jsonifier;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 // File input/output operations
+// In journaled mode (the default), individual mutations are appended to jsonJournalFile and the full
+// list is only rewritten to the snapshot when the journal is compacted.
+// The snapshot is jsonDataFile, or binaryDataFile when the binary snapshot format is selected.
+// In parallel load mode, jsonDataFile is read whole and parsed in chunks on the common ForkJoinPool.
+// The search index of the snapshot is saved to searchIndexFile whenever the snapshot is, and read back with it.
 public class JsonFileIO {
     public static final File jsonDataFile = new File("./resources/json/tasks.json");
+    public static final File binaryDataFile = new File("./resources/json/tasks.bin");
+    public static final File jsonJournalFile = new File("./resources/json/tasks.journal");
+    public static final File searchIndexFile = new File("./resources/json/tasks.idx");
+    public static final int COMPACTION_THRESHOLD = 1000;
+    public static final int LOAD_BATCH_SIZE = 500;
+    private static TaskJournal journal = new TaskJournal(jsonJournalFile);
+    private static boolean journaled = true;
+    private static boolean binarySnapshot = false;
+    private static boolean parallelLoad = false;
+    private static long snapshotChecksum;
+    private static int replayed;
+    private static SearchIndex searchIndex;
+    private static final Metrics.Histogram readTimes = Metrics.histogram("jsonFileIO.read");
+    private static final Metrics.Histogram writeTimes = Metrics.histogram("jsonFileIO.write");
+    private static final Metrics.Counter tasksRead = Metrics.counter("jsonFileIO.tasksRead");
 
-    // EFFECTS: attempts to read jsonDataFile and parse it
-    //           returns a list of tasks from the content of jsonDataFile
+    // EFFECTS: attempts to read the snapshot and parse it, then replays the mutations recorded since
+    //           in jsonJournalFile
+    //           returns a list of tasks from the content of the snapshot
     public static List<Task> read() throws IOException {
-        Scanner scanner = new Scanner(jsonDataFile);
-        String str = "";
-        while (scanner.hasNextLine()) {
-            String tempStr = scanner.nextLine();
-            str += tempStr.trim();
-        }
+        return read(null);
+    }
 
-        TaskParser parser = new TaskParser();
-        List<Task> tasks = parser.parse(str);
+    // EFFECTS: reads the tasks as read() does, and passes the tasks of the snapshot to batches as they are
+    //          decoded, in order, in batches of about LOAD_BATCH_SIZE tasks; the journal is replayed
+    //          on the returned list once the snapshot is read, so when getReplayedRecordCount() > 0 the
+    //          returned list differs from the concatenation of the batches
+    public static List<Task> read(Consumer<List<Task>> batches) throws IOException {
+        long start = System.nanoTime();
+        FlightEvents.Span event = FlightEvents.begin(FlightEvents.Type.TASK_LOAD);
+        List<Task> tasks = readSnapshot(batches);
+        SearchIndex saved = SearchIndexFile.read(searchIndexFile, snapshotChecksum, tasks);
+        if (saved == null) {
+            writeSearchIndex(tasks);
+        }
+        replayed = journal.replay(tasks, snapshotChecksum);
+        searchIndex = saved == null ? new SearchIndex(tasks) : saved;
+        if (replayed > 0) {
+            searchIndex.retainOnly(tasks);
+        }
+        if (journal.isDamaged()) {
+            write(tasks);
+        }
+        if (replayed > 0) {
+            Logger.info("JsonFileIO", "Replayed %d journal records", replayed);
+        }
+        readTimes.recordSince(start);
+        tasksRead.add(tasks.size());
+        event.commit(tasks.size(), snapshotFile().length() + jsonJournalFile.length());
         return tasks;
     }
-    
-    // EFFECTS: saves the tasks to jsonDataFile
+
+    // EFFECTS: attempts to open jsonDataFile and returns a stream of the tasks it contains;
+    //          tasks are parsed lazily as the stream is consumed, and the file stays open
+    //          until the stream is closed
+    // Note: mutations recorded in jsonJournalFile are not applied to the stream; a binary snapshot
+    //       is decoded in full before the stream is returned
+    public static Stream<Task> stream() throws IOException {
+        if (binarySnapshot) {
+            return BinaryTaskFile.read(binaryDataFile, null).stream();
+        }
+        return openReader(new FileInputStream(jsonDataFile)).stream();
+    }
+
+    // MODIFIES: jsonDataFile or binaryDataFile, jsonJournalFile, searchIndexFile
+    // EFFECTS: saves the tasks to the snapshot and discards the journal, whose mutations they include;
+    //          then saves the search index of the tasks
     public static void write(List<Task> tasks) throws IOException {
-        FileWriter writer = new FileWriter(jsonDataFile);
+        long start = System.nanoTime();
+        FlightEvents.Span event = FlightEvents.begin(FlightEvents.Type.TASK_SAVE);
+        File target = snapshotFile();
+        File temp = new File(target.getPath() + ".tmp");
+        long checksum = binarySnapshot ? BinaryTaskFile.write(temp, tasks) : writeSnapshot(temp, tasks);
+        Files.move(temp.toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        snapshotChecksum = checksum;
+        journal.reset(snapshotChecksum);
+        writeSearchIndex(tasks);
+        writeTimes.recordSince(start);
+        event.commit(tasks.size(), target.length());
+    }
+
+    // REQUIRES: task at index in tasks has just been added
+    // MODIFIES: jsonDataFile, jsonJournalFile
+    // EFFECTS: records the addition of the task at index in tasks
+    public static void logAdded(List<Task> tasks, int index) throws IOException {
+        log(tasks, TaskJournal.Operation.ADD, index);
+    }
+
+    // REQUIRES: the task at index has just been removed from tasks
+    // MODIFIES: jsonDataFile, jsonJournalFile
+    // EFFECTS: records the removal of the task that was at index in tasks
+    public static void logRemoved(List<Task> tasks, int index) throws IOException {
+        log(tasks, TaskJournal.Operation.REMOVE, index);
+    }
+
+    // REQUIRES: task at index in tasks has just been modified
+    // MODIFIES: jsonDataFile, jsonJournalFile
+    // EFFECTS: records the modification of the task at index in tasks
+    public static void logUpdated(List<Task> tasks, int index) throws IOException {
+        log(tasks, TaskJournal.Operation.UPDATE, index);
+    }
+
+    // MODIFIES: jsonJournalFile
+    // EFFECTS: appends a record built by TaskJournal.record to the journal, without compacting it
+    //   throws IOException if the journal has not been opened by read()
+    public static void append(String record) throws IOException {
+        journal.append(record);
+    }
+
+    // MODIFIES: jsonJournalFile
+    // EFFECTS: forces any buffered journal records to disk
+    public static void sync() throws IOException {
+        journal.sync();
+    }
+
+    // EFFECTS: returns the search index of the tasks returned by the last read, or null if nothing was read;
+    //          it follows changes to the descriptions of those tasks, but tasks added to or removed from
+    //          the list must be added to or removed from it
+    public static SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    // EFFECTS: returns the number of journal records applied by the last read
+    public static int getReplayedRecordCount() {
+        return replayed;
+    }
+
+    // EFFECTS: returns the number of records in the journal since the last snapshot
+    public static int getJournalRecordCount() {
+        return journal.getRecordCount();
+    }
+
+    // EFFECTS: returns true if mutations are journaled rather than saved by rewriting every task
+    public static boolean isJournaled() {
+        return journaled;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: enables or disables journaled mode; when disabled, every mutation saves all the tasks
+    public static void setJournaled(boolean journaled) {
+        JsonFileIO.journaled = journaled;
+    }
 
-        Jsonifier jsonifier = new Jsonifier();
-        JSONArray jsonArray = jsonifier.taskListToJson(tasks);
-        writer.write(jsonArray.toString());
-        writer.close();
+    // MODIFIES: this
+    // EFFECTS: selects binaryDataFile (if binary) or jsonDataFile as the snapshot read and written;
+    //          must be called before read()
+    public static void setBinarySnapshot(boolean binary) {
+        binarySnapshot = binary;
     }
 
+    // MODIFIES: this
+    // EFFECTS: enables or disables parsing jsonDataFile in parallel chunks when it is read
+    public static void setParallelLoad(boolean parallel) {
+        parallelLoad = parallel;
+    }
+
+    // MODIFIES: jsonJournalFile
+    // EFFECTS: forces any buffered journal records to disk and closes the journal
+    public static void close() throws IOException {
+        journal.close();
+    }
+
+    // MODIFIES: jsonDataFile, jsonJournalFile
+    // EFFECTS: appends a record of operation at index to the journal, compacting the journal into
+    //          jsonDataFile once it holds COMPACTION_THRESHOLD records; saves every task instead when
+    //          not in journaled mode or when the journal has not been opened by read()
+    private static void log(List<Task> tasks, TaskJournal.Operation operation, int index) throws IOException {
+        if (!journaled || !journal.isOpen()) {
+            write(tasks);
+            return;
+        }
+        Task task = operation == TaskJournal.Operation.REMOVE ? null : tasks.get(index);
+        journal.append(TaskJournal.record(operation, index, task));
+        if (journal.getRecordCount() >= COMPACTION_THRESHOLD) {
+            write(tasks);
+        }
+    }
+
+    // MODIFIES: searchIndexFile
+    // EFFECTS: saves the search index of tasks, the content of the snapshot; a failure is logged, as the index
+    //          is rebuilt when it cannot be read
+    private static void writeSearchIndex(List<Task> tasks) {
+        try {
+            SearchIndexFile.write(searchIndexFile, snapshotChecksum, tasks);
+        } catch (IOException e) {
+            Logger.warn("JsonFileIO", "Failed to save the search index: %s", e);
+        }
+    }
+
+    // EFFECTS: returns the file of the snapshot, in the selected format
+    private static File snapshotFile() {
+        return binarySnapshot ? binaryDataFile : jsonDataFile;
+    }
+
+    // EFFECTS: reads the tasks in the snapshot, passing them to batches (if not null) as they are decoded,
+    //          and records the checksum of its content
+    private static List<Task> readSnapshot(Consumer<List<Task>> batches) throws IOException {
+        if (binarySnapshot) {
+            CRC32 checksum = new CRC32();
+            List<Task> tasks = BinaryTaskFile.read(binaryDataFile, checksum);
+            snapshotChecksum = checksum.getValue();
+            deliver(tasks, 0, batches);
+            return tasks;
+        }
+        if (parallelLoad) {
+            return readSnapshotInParallel(batches);
+        }
+        List<Task> tasks = new ArrayList<>();
+        CheckedInputStream in = new CheckedInputStream(new FileInputStream(jsonDataFile), new CRC32());
+        try (TaskReader reader = openReader(in)) {
+            reader.forEachRemaining(task -> {
+                tasks.add(task);
+                if (tasks.size() % LOAD_BATCH_SIZE == 0) {
+                    deliver(tasks, tasks.size() - LOAD_BATCH_SIZE, batches);
+                }
+            });
+            drain(in);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        snapshotChecksum = in.getChecksum().getValue();
+        deliver(tasks, tasks.size() - tasks.size() % LOAD_BATCH_SIZE, batches);
+        return tasks;
+    }
+
+    // EFFECTS: reads the tasks in jsonDataFile, parsing it in parallel and passing them to batches (if not null)
+    //          one chunk at a time, and records the checksum of its content
+    private static List<Task> readSnapshotInParallel(Consumer<List<Task>> batches) throws IOException {
+        byte[] bytes = Files.readAllBytes(jsonDataFile.toPath());
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, bytes.length);
+        snapshotChecksum = checksum.getValue();
+        List<Task> tasks = new ArrayList<>();
+        new ParallelTaskParser().parse(bytes, batch -> {
+            tasks.addAll(batch);
+            deliver(tasks, tasks.size() - batch.size(), batches);
+        });
+        return tasks;
+    }
+
+    // EFFECTS: passes a copy of the tasks from index from onwards to batches, if there are any and batches is
+    //          not null
+    private static void deliver(List<Task> tasks, int from, Consumer<List<Task>> batches) {
+        if (batches != null && from < tasks.size()) {
+            batches.accept(new ArrayList<>(tasks.subList(from, tasks.size())));
+        }
+    }
+
+    // MODIFIES: file
+    // EFFECTS: writes tasks to file as JSON, forces it to disk, and returns the checksum of the bytes written
+    static long writeSnapshot(File file, List<Task> tasks) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32());
+        try (Writer writer = new OutputStreamWriter(checked, StandardCharsets.UTF_8)) {
+            Jsonifier jsonifier = new Jsonifier();
+            JSONArray jsonArray = jsonifier.taskListToJson(tasks);
+            writer.write(jsonArray.toString());
+            writer.flush();
+            out.getFD().sync();
+        }
+        return checked.getChecksum().getValue();
+    }
+
+    // MODIFIES: in
+    // EFFECTS: consumes the rest of in so that its checksum covers the whole file
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        while (in.read(buffer) != -1) {
+            // discard
+        }
+    }
+
+    // EFFECTS: opens in for streaming
+    static TaskReader openReader(InputStream in) {
+        return new TaskReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
 }
@@ -1,16 +1,284 @@
 package utility;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.IllegalFormatException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
-// A simple logger; helpful for debugging GUI
+// A levelled, asynchronous logger; helpful for debugging GUI
+// Logging only puts the level, key, format and arguments of a message in a bounded ring buffer, without locks;
+// the message is formatted and written by a background thread, to the console and, optionally, to a rolling
+// file. Messages below the current level are dropped before anything is done with them, and so are messages
+// logged while the buffer is full (they are counted), so that logging never blocks the caller. Nothing is kept
+// once it is written. Messages still in the buffer when the program exits are written by a shutdown hook.
+// Note: arguments are formatted later, on the logging thread; pass values that do not change, not mutable objects
 public class Logger {
-    private static Map<String, String> log = new HashMap<>();
-    
+    public static final int CAPACITY = 1 << 12;
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_PARK_NANOS = 10_000_000;
+
+    // Levels of messages, from the least to the most severe
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final long[] times = new long[CAPACITY];
+    private static final Level[] levels = new Level[CAPACITY];
+    private static final String[] keys = new String[CAPACITY];
+    private static final String[] formats = new String[CAPACITY];
+    private static final Object[][] arguments = new Object[CAPACITY][];
+    private static final AtomicLong tail = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile long head;
+    private static volatile Level threshold = Level.INFO;
+    private static volatile boolean console = true;
+    private static RollingFile file;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        Thread writer = new Thread(Logger::drainForever, "logger");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Logger::drain, "logger-shutdown"));
+    }
+
     // MODIFIES: this
-    // EFFECTS: prints the key + message to console
+    // EFFECTS: logs key + message at level INFO
     public static void log(String key, String message) {
-        log.put(key, message);
-        System.out.println(key + " : " + message);
+        offer(Level.INFO, key, message, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs key + format formatted with args (as by String.format), at level DEBUG
+    public static void debug(String key, String format, Object... args) {
+        offer(Level.DEBUG, key, format, args);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs key + format formatted with args (as by String.format), at level INFO
+    public static void info(String key, String format, Object... args) {
+        offer(Level.INFO, key, format, args);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs key + format formatted with args (as by String.format), at level WARN
+    public static void warn(String key, String format, Object... args) {
+        offer(Level.WARN, key, format, args);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs key + format formatted with args (as by String.format), at level ERROR
+    public static void error(String key, String format, Object... args) {
+        offer(Level.ERROR, key, format, args);
+    }
+
+    // EFFECTS: returns true if messages at level are logged
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs only messages at level or above from now on
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes messages to the console, or not
+    public static void setConsole(boolean enabled) {
+        console = enabled;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes messages to logFile as well, appending to it; once it reaches maxBytes, it is renamed to
+    //          logFile.1 (logFile.1 to logFile.2, and so on, keeping backups old files) and a new one is started.
+    //          If logFile is null, stops writing messages to a file.
+    //  throws IOException if logFile cannot be opened
+    public static void setFile(File logFile, long maxBytes, int backups) throws IOException {
+        RollingFile opened = logFile == null ? null : new RollingFile(logFile, maxBytes, backups);
+        synchronized (Logger.class) {
+            if (file != null) {
+                file.close();
+            }
+            file = opened;
+        }
+    }
+
+    // EFFECTS: returns the number of messages dropped because the buffer was full
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // EFFECTS: waits up to timeoutMillis for every message logged so far to be written; returns true if they were
+    public static boolean flush(long timeoutMillis) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000;
+        while (head < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts a message in the buffer, unless level is disabled or the buffer is full
+    private static void offer(Level level, String key, String format, Object[] args) {
+        if (level.compareTo(threshold) < 0) {
+            return;
+        }
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & MASK);
+            long difference = sequences.get(slot) - position;
+            if (difference == 0 && tail.compareAndSet(position, position + 1)) {
+                break;
+            } else if (difference < 0) {
+                dropped.incrementAndGet();
+                return;
+            }
+            position = tail.get();
+        }
+        int slot = (int) (position & MASK);
+        times[slot] = System.currentTimeMillis();
+        levels[slot] = level;
+        keys[slot] = key;
+        formats[slot] = format;
+        arguments[slot] = args;
+        sequences.lazySet(slot, position + 1);
+    }
+
+    // EFFECTS: writes the messages in the buffer as they come, for as long as the program runs
+    private static void drainForever() {
+        while (true) {
+            if (!drain()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every message in the buffer; returns false if there was none
+    private static synchronized boolean drain() {
+        boolean drained = false;
+        long position = head;
+        while (sequences.get((int) (position & MASK)) == position + 1) {
+            int slot = (int) (position & MASK);
+            String line = format(times[slot], levels[slot], keys[slot], formats[slot], arguments[slot]);
+            keys[slot] = null;
+            formats[slot] = null;
+            arguments[slot] = null;
+            sequences.lazySet(slot, position + CAPACITY);
+            head = ++position;
+            write(line);
+            drained = true;
+        }
+        return drained;
+    }
+
+    // EFFECTS: returns the line of a message
+    private static String format(long time, Level level, String key, String format, Object[] args) {
+        String message = format;
+        if (args != null && args.length > 0) {
+            try {
+                message = String.format(format, args);
+            } catch (IllegalFormatException e) {
+                message = format + " " + Arrays.toString(args);
+            }
+        }
+        return String.format("%tT.%<tL %-5s %s : %s", time, level, key, message);
+    }
+
+    // EFFECTS: writes line to the console and the log file, if enabled
+    private static void write(String line) {
+        if (console) {
+            System.out.println(line);
+        }
+        if (file != null) {
+            try {
+                file.write(line);
+            } catch (IOException e) {
+                System.err.println("Logger : failed to write to " + file + ", no longer writing to it: " + e);
+                file = null;
+            }
+        }
+    }
+
+    // Represents a log file that is rolled over once it reaches its maximum size
+    private static class RollingFile {
+        private final File file;
+        private final long maxBytes;
+        private final int backups;
+        private Writer writer;
+        private long bytes;
+
+        // EFFECTS: opens file for appending
+        //  throws IOException if it cannot be opened
+        private RollingFile(File file, long maxBytes, int backups) throws IOException {
+            this.file = file;
+            this.maxBytes = maxBytes;
+            this.backups = backups;
+            open();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: appends line to the file and flushes it, rolling the file over first if it is full
+        private void write(String line) throws IOException {
+            byte[] encoded = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+            if (bytes > 0 && bytes + encoded.length > maxBytes) {
+                roll();
+            }
+            writer.write(line);
+            writer.write(System.lineSeparator());
+            writer.flush();
+            bytes += encoded.length;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: renames the file to file.1, shifting the older files along and deleting the oldest, and
+        //          starts a new file
+        private void roll() throws IOException {
+            writer.close();
+            new File(file.getPath() + "." + backups).delete();
+            for (int i = backups - 1; i >= 1; i--) {
+                new File(file.getPath() + "." + i).renameTo(new File(file.getPath() + "." + (i + 1)));
+            }
+            if (backups > 0) {
+                file.renameTo(new File(file.getPath() + ".1"));
+            } else {
+                file.delete();
+            }
+            open();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: opens the file for appending
+        private void open() throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true),
+                    StandardCharsets.UTF_8));
+            bytes = file.length();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: closes the file
+        private void close() {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Logger : failed to close " + file + ": " + e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return file.getPath();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,230 @@
+package utility;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// A registry of metrics, by name: counters, gauges (values read when a snapshot is taken) and latency
+// histograms with percentiles. Recording never locks and never allocates, so metrics can be kept on hot paths;
+// callers keep the metrics they record to in static fields rather than looking them up each time.
+// Snapshots of every metric can be dumped as text, and appended to a file periodically.
+public class Metrics {
+    public static final File DEFAULT_EXPORT_FILE = new File("./resources/json/metrics.log");
+    public static final long DEFAULT_EXPORT_PERIOD_MILLIS = 10000;
+    private static final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService exporter;
+
+    // EFFECTS: returns the counter named name, creating it if needed
+    //  throws IllegalArgumentException if name is taken by another kind of metric
+    public static Counter counter(String name) {
+        return get(name, Counter.class, new Counter());
+    }
+
+    // EFFECTS: returns the histogram named name, creating it if needed
+    //  throws IllegalArgumentException if name is taken by another kind of metric
+    public static Histogram histogram(String name) {
+        return get(name, Histogram.class, new Histogram());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers value as the gauge named name, replacing any gauge of that name; value is read, on the
+    //          thread taking the snapshot, each time a snapshot is taken
+    //  throws IllegalArgumentException if name is taken by another kind of metric
+    public static void gauge(String name, LongSupplier value) {
+        Object registered = metrics.merge(name, new Gauge(value),
+                (old, gauge) -> old instanceof Gauge ? gauge : old);
+        if (!(registered instanceof Gauge)) {
+            throw new IllegalArgumentException(name + " is not a Gauge");
+        }
+    }
+
+    // EFFECTS: returns a snapshot of every metric, one line per metric, in order of name
+    public static String snapshot() {
+        StringBuilder snapshot = new StringBuilder();
+        for (Map.Entry<String, Object> entry : new TreeMap<>(metrics).entrySet()) {
+            snapshot.append(String.format("%-28s %s%n", entry.getKey(), entry.getValue()));
+        }
+        return snapshot.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a snapshot of every metric, headed by the time it is taken, to file every periodMillis,
+    //          on a background thread, until stopExport is called; replaces any previous export
+    public static synchronized void startExport(File file, long periodMillis) {
+        stopExport();
+        exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> export(file), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops exporting snapshots
+    public static synchronized void stopExport() {
+        if (exporter != null) {
+            exporter.shutdown();
+            exporter = null;
+        }
+    }
+
+    // EFFECTS: returns true if snapshots are being exported
+    public static synchronized boolean isExporting() {
+        return exporter != null;
+    }
+
+    // EFFECTS: appends a snapshot of every metric, headed by the time it is taken, to file
+    static void export(File file) {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8)) {
+            writer.write(String.format("# %tF %<tT%n%s%n", System.currentTimeMillis(), snapshot()));
+        } catch (IOException e) {
+            Logger.warn("Metrics", "Failed to export metrics to %s: %s", file, e);
+        }
+    }
+
+    // EFFECTS: returns the metric named name, registering metric under that name if there is none
+    //  throws IllegalArgumentException if the metric named name is not of class kind
+    private static <M> M get(String name, Class<M> kind, M metric) {
+        Object existing = metrics.computeIfAbsent(name, key -> metric);
+        if (!kind.isInstance(existing)) {
+            throw new IllegalArgumentException(name + " is not a " + kind.getSimpleName());
+        }
+        return kind.cast(existing);
+    }
+
+    // Represents a count of events
+    public static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        // MODIFIES: this
+        // EFFECTS: adds one to this counter
+        public void increment() {
+            count.increment();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds n to this counter
+        public void add(long n) {
+            count.add(n);
+        }
+
+        // EFFECTS: returns the count
+        public long get() {
+            return count.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + get();
+        }
+    }
+
+    // Represents a value read when a snapshot is taken
+    private static final class Gauge {
+        private final LongSupplier value;
+
+        private Gauge(LongSupplier value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "value=" + value.getAsLong();
+        }
+    }
+
+    // Represents a histogram of latencies, in nanoseconds. Latencies are counted in buckets of about an eighth
+    // of a power of two each, so percentiles are accurate to within 12.5%, whatever the range of latencies.
+    public static final class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int BUCKETS = 64 * SUB_BUCKETS;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        // MODIFIES: this
+        // EFFECTS: records a latency of nanos (a negative latency counts as 0)
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts.incrementAndGet(bucketOf(value));
+            count.increment();
+            total.add(value);
+            long largest = max.get();
+            while (value > largest && !max.compareAndSet(largest, value)) {
+                largest = max.get();
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: records the latency from startNanos (as returned by System.nanoTime) to now
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        // EFFECTS: returns the number of latencies recorded
+        public long getCount() {
+            return count.sum();
+        }
+
+        // EFFECTS: returns the mean latency, or 0 if none was recorded
+        public double getMean() {
+            long n = getCount();
+            return n == 0 ? 0 : (double) total.sum() / n;
+        }
+
+        // EFFECTS: returns the largest latency recorded
+        public long getMax() {
+            return max.get();
+        }
+
+        // REQUIRES: 0 <= percentile <= 100
+        // EFFECTS: returns a latency no lower than percentile percent of those recorded (the upper bound of
+        //          their bucket, and never more than the largest), or 0 if none was recorded
+        public long getPercentile(double percentile) {
+            long n = getCount();
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += counts.get(bucket);
+                if (seen >= rank) {
+                    return Math.min(lowerBoundOf(bucket + 1) - 1, getMax());
+                }
+            }
+            return getMax();
+        }
+
+        // EFFECTS: returns the bucket of value: values below SUB_BUCKETS have one bucket each; above, each
+        //          power of two is split into SUB_BUCKETS buckets
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        // EFFECTS: returns the lowest value in bucket
+        static long lowerBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms", getCount(),
+                    getMean() / 1e6, getPercentile(50) / 1e6, getPercentile(99) / 1e6, getMax() / 1e6);
+        }
+    }
+}
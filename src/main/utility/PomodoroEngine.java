@@ -0,0 +1,275 @@
+package utility;
+
+import model.Task;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// Represents a Pomodoro engine running any number of Pomodoro timers, one per task, on a single scheduler
+// thread. A Pomodoro is a work phase followed by a short break (or a long one after every
+// POMODOROS_PER_LONG_BREAK work phases of the task). Phases end at deadlines fixed when the Pomodoro starts,
+// measured on System.nanoTime, and each phase starts where the last one ended, so timers do not drift however
+// late the thread runs; the remaining time is always computed from the deadline, never counted down.
+// Every session is appended to a session log, and the time worked is credited to the progress and estimated
+// time to complete of the task, on the model executor, by an edit the listener applies to the task (inside an
+// update of the store of tasks, say); once the engine is shutting down, work is credited on the thread that shuts
+// it down instead, as the model executor may no longer run it.
+public class PomodoroEngine {
+    public static final long TICK_MILLIS = 1000;
+    public static final long WORK_MILLIS = 25 * 60 * 1000;
+    public static final long SHORT_BREAK_MILLIS = 5 * 60 * 1000;
+    public static final long LONG_BREAK_MILLIS = 15 * 60 * 1000;
+    public static final int POMODOROS_PER_LONG_BREAK = 4;
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+
+    // Phases of a Pomodoro
+    public enum Phase {
+        WORK, SHORT_BREAK, LONG_BREAK
+    }
+
+    // Receives the events of the engine
+    public interface Listener {
+        // EFFECTS: called on the scheduler thread every tick while pomodoro runs
+        void ticked(Pomodoro pomodoro);
+
+        // EFFECTS: called when phase of pomodoro ends, on the scheduler thread if it was completed, or on the
+        //          thread that stopped it if not
+        void phaseEnded(Pomodoro pomodoro, Phase phase, boolean completed);
+
+        // EFFECTS: called on the model executor to credit work to task; credit must be applied to task, once,
+        //          or not at all if task is gone
+        void creditWork(Task task, Consumer<Task> credit);
+    }
+
+    private final Listener listener;
+    private final Executor modelExecutor;
+    private final SessionLog log;
+    private final long[] durations;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Task, Pomodoro> running = new IdentityHashMap<>();
+    private final Map<Task, Integer> completedPomodoros = new IdentityHashMap<>();
+    private final Map<Task, Long> carriedMillis = new IdentityHashMap<>();
+    private final Queue<Runnable> lateCredits = new ConcurrentLinkedQueue<>();
+    private volatile boolean shuttingDown;
+    private ScheduledFuture<?> ticker;
+
+    // EFFECTS: constructs an engine with no Pomodoro running, reporting to listener, crediting work to tasks
+    //          on modelExecutor and appending sessions to log
+    public PomodoroEngine(Listener listener, Executor modelExecutor, SessionLog log) {
+        this(listener, modelExecutor, log, WORK_MILLIS, SHORT_BREAK_MILLIS, LONG_BREAK_MILLIS);
+    }
+
+    // EFFECTS: constructs an engine as above, with phases of the given lengths
+    PomodoroEngine(Listener listener, Executor modelExecutor, SessionLog log,
+                   long workMillis, long shortBreakMillis, long longBreakMillis) {
+        this.listener = listener;
+        this.modelExecutor = modelExecutor;
+        this.log = log;
+        durations = new long[] {workMillis, shortBreakMillis, longBreakMillis};
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pomodoro");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a Pomodoro on task, unless one is already running on it; returns the Pomodoro of task
+    public synchronized Pomodoro start(Task task) {
+        Pomodoro pomodoro = running.get(task);
+        if (pomodoro == null) {
+            pomodoro = new Pomodoro(task);
+            running.put(task, pomodoro);
+            begin(pomodoro, Phase.WORK, System.nanoTime());
+            if (ticker == null) {
+                ticker = scheduler.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        return pomodoro;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the Pomodoro running on task, if any, crediting the work done in its current phase
+    public void stop(Task task) {
+        Pomodoro pomodoro;
+        Phase phase;
+        synchronized (this) {
+            pomodoro = running.get(task);
+            if (pomodoro == null) {
+                return;
+            }
+            pomodoro.due.cancel(false);
+            phase = pomodoro.phase;
+            finish(pomodoro);
+        }
+        end(pomodoro, phase, pomodoro.startMillis, System.currentTimeMillis(), false);
+    }
+
+    // EFFECTS: returns the Pomodoro running on task, or null if there is none
+    public synchronized Pomodoro get(Task task) {
+        return running.get(task);
+    }
+
+    // EFFECTS: returns the number of Pomodoros running
+    public synchronized int getRunningCount() {
+        return running.size();
+    }
+
+    // REQUIRES: called on the thread of the model executor (or with the model executor idle)
+    // MODIFIES: this, the tasks of the running Pomodoros
+    // EFFECTS: stops every Pomodoro, then waits up to timeoutMillis for their sessions to be logged; the work done
+    //          in them (and in any phase ending meanwhile) is credited on this thread before shutdown returns
+    public void shutdown(long timeoutMillis) throws InterruptedException {
+        shuttingDown = true;
+        List<Task> tasks;
+        synchronized (this) {
+            tasks = new ArrayList<>(running.keySet());
+        }
+        for (Task task : tasks) {
+            stop(task);
+        }
+        scheduler.shutdown();
+        scheduler.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        for (Runnable credit = lateCredits.poll(); credit != null; credit = lateCredits.poll()) {
+            credit.run();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts phase of pomodoro at startNanos, and schedules its end
+    private void begin(Pomodoro pomodoro, Phase phase, long startNanos) {
+        long duration = TimeUnit.MILLISECONDS.toNanos(durations[phase.ordinal()]);
+        pomodoro.phase = phase;
+        long lateNanos = System.nanoTime() - startNanos;
+        pomodoro.startMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(lateNanos);
+        pomodoro.startNanos = startNanos;
+        pomodoro.endNanos = startNanos + duration;
+        pomodoro.due = scheduler.schedule(() -> phaseDue(pomodoro, phase),
+                pomodoro.endNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends phase of pomodoro, which has reached its deadline, and begins the next phase, if any
+    private void phaseDue(Pomodoro pomodoro, Phase phase) {
+        long startMillis = pomodoro.startMillis;
+        synchronized (this) {
+            if (running.get(pomodoro.task) != pomodoro || pomodoro.phase != phase) {
+                return;
+            }
+            if (phase == Phase.WORK) {
+                int completed = completedPomodoros.merge(pomodoro.task, 1, Integer::sum);
+                begin(pomodoro, completed % POMODOROS_PER_LONG_BREAK == 0 ? Phase.LONG_BREAK : Phase.SHORT_BREAK,
+                        pomodoro.endNanos);
+            } else {
+                finish(pomodoro);
+            }
+        }
+        end(pomodoro, phase, startMillis, startMillis + durations[phase.ordinal()], true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes pomodoro from the running Pomodoros, stopping the ticks when none is left
+    private void finish(Pomodoro pomodoro) {
+        running.remove(pomodoro.task);
+        pomodoro.phase = null;
+        if (running.isEmpty() && ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+    }
+
+    // EFFECTS: logs the session of phase of pomodoro from startMillis to endMillis, reports the end of the
+    //          phase, and credits the time worked (or leaves it for shutdown to credit, if shutting down)
+    // Note: the scheduler only rejects the session once shut down, and so only while running its last phaseDue;
+    //       the session is then logged at once, on the scheduler thread all the same
+    private void end(Pomodoro pomodoro, Phase phase, long startMillis, long endMillis, boolean completed) {
+        Runnable append = () -> {
+            try {
+                log.append(pomodoro.task, phase, startMillis, endMillis, completed);
+            } catch (IOException e) {
+                Logger.warn("PomodoroEngine", "Failed to log Pomodoro session: %s", e);
+            }
+        };
+        try {
+            scheduler.execute(append);
+        } catch (RejectedExecutionException e) {
+            append.run();
+        }
+        listener.phaseEnded(pomodoro, phase, completed);
+        if (phase == Phase.WORK) {
+            Runnable credit = () -> listener.creditWork(pomodoro.task, task -> credit(task, endMillis - startMillis));
+            if (shuttingDown) {
+                lateCredits.add(credit);
+            } else {
+                modelExecutor.execute(credit);
+            }
+        }
+    }
+
+    // EFFECTS: reports a tick of every running Pomodoro
+    private void tick() {
+        List<Pomodoro> pomodoros;
+        synchronized (this) {
+            pomodoros = new ArrayList<>(running.values());
+        }
+        for (Pomodoro pomodoro : pomodoros) {
+            listener.ticked(pomodoro);
+        }
+    }
+
+    // MODIFIES: task
+    // EFFECTS: credits workedMillis of work to task: its progress moves towards 100 by the share of its
+    //          remaining work that was done, and its estimated time to complete drops by the whole hours worked,
+    //          counting the time carried over from earlier sessions
+    // Note: runs on the model executor only (or on the thread shutting the engine down, once the model executor
+    //       no longer credits work), which therefore owns carriedMillis
+    void credit(Task task, long workedMillis) {
+        long carried = carriedMillis.getOrDefault(task, 0L);
+        long remainingMillis = task.getEstimatedTimeToComplete() * HOUR_MILLIS - carried;
+        if (remainingMillis > 0) {
+            int progress = task.getProgress();
+            double share = Math.min(1.0, (double) workedMillis / remainingMillis);
+            task.setProgress(progress + (int) Math.round((100 - progress) * share));
+        }
+        carried += workedMillis;
+        int hours = (int) Math.min(carried / HOUR_MILLIS, task.getEstimatedTimeToComplete());
+        task.setEstimatedTimeToComplete(task.getEstimatedTimeToComplete() - hours);
+        carriedMillis.put(task, carried - hours * HOUR_MILLIS);
+    }
+
+    // Represents a Pomodoro timer running on a task
+    public static final class Pomodoro {
+        private final Task task;
+        private volatile Phase phase;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile long startMillis;
+        private ScheduledFuture<?> due;
+
+        private Pomodoro(Task task) {
+            this.task = task;
+        }
+
+        // EFFECTS: returns the task of this Pomodoro
+        public Task getTask() {
+            return task;
+        }
+
+        // EFFECTS: returns the current phase of this Pomodoro, or null if it is no longer running
+        public Phase getPhase() {
+            return phase;
+        }
+
+        // EFFECTS: returns the time left in the current phase, in milliseconds
+        public long getRemainingMillis() {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(endNanos - System.nanoTime()));
+        }
+
+        // EFFECTS: returns the time spent in the current phase, in milliseconds
+        public long getElapsedMillis() {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package utility;
+
+import model.Status;
+import model.Task;
+import model.Todo;
+import model.TodoChange;
+import model.TodoListener;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Represents a reminder service for the due dates of tasks. Every task added with a due date, and not done,
+// is scheduled in a timing wheel: once when it becomes due soon (leadMillis before its due date) and once
+// when it becomes overdue. The service observes its tasks and reschedules a task when its due date or status
+// changes. Once started, the wheel is advanced every tick on a dedicated thread, which calls the listener.
+// Only deadlines that pass while the service runs are reported; tasks that are already overdue when they are
+// added (or when their due date is changed) are counted as overdue without being reported.
+public class ReminderService implements TodoListener {
+    public static final long TICK_MILLIS = 1000;
+    public static final long DEFAULT_LEAD_MILLIS = 60 * 60 * 1000;
+
+    // Receives the reminders, on the thread of the service
+    public interface Listener {
+        // EFFECTS: called when task becomes due within the lead time of the service
+        void taskDueSoon(Task task);
+
+        // EFFECTS: called when task becomes overdue
+        void taskOverdue(Task task);
+    }
+
+    private final Listener listener;
+    private final long leadMillis;
+    private final TimingWheel<Reminder> wheel;
+    private final Map<Task, Reminder> reminders = new IdentityHashMap<>();
+    private final Set<Task> overdue = Collections.newSetFromMap(new IdentityHashMap<>());
+    private ScheduledExecutorService clock;
+
+    // EFFECTS: constructs a service with no tasks, reporting to listener, warning leadMillis before due dates
+    public ReminderService(Listener listener, long leadMillis) {
+        this(listener, leadMillis, System.currentTimeMillis());
+    }
+
+    // EFFECTS: constructs a service as above, whose wheel starts at nowMillis rather than at the current time
+    ReminderService(Listener listener, long leadMillis, long nowMillis) {
+        this.listener = listener;
+        this.leadMillis = leadMillis;
+        wheel = new TimingWheel<>(TICK_MILLIS, nowMillis);
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: adds task to this service, if it is not already in it, and schedules its reminders
+    public synchronized void add(Task task) {
+        if (!reminders.containsKey(task)) {
+            reminders.put(task, null);
+            schedule(task);
+            task.addListener(this);
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: removes task from this service and cancels its reminders
+    public synchronized void remove(Task task) {
+        if (reminders.containsKey(task)) {
+            cancel(task);
+            reminders.remove(task);
+            task.removeListener(this);
+        }
+    }
+
+    // EFFECTS: returns the number of tasks in this service that are overdue and not done
+    public synchronized int getOverdueCount() {
+        return overdue.size();
+    }
+
+    // EFFECTS: returns the number of reminders scheduled
+    public synchronized int getPendingCount() {
+        return wheel.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts advancing this service to the current time every tick, on a dedicated thread
+    public synchronized void start() {
+        if (clock == null) {
+            clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "reminders");
+                thread.setDaemon(true);
+                return thread;
+            });
+            clock.scheduleAtFixedRate(() -> advanceTo(System.currentTimeMillis()),
+                    TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops advancing this service
+    public synchronized void stop() {
+        if (clock != null) {
+            clock.shutdownNow();
+            clock = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances this service to nowMillis, and calls the listener, on the calling thread, for every
+    //          task that became due soon or overdue
+    public void advanceTo(long nowMillis) {
+        List<Reminder> fired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(nowMillis, reminder -> {
+                fired.add(reminder);
+                fire(reminder);
+            });
+        }
+        for (Reminder reminder : fired) {
+            try {
+                if (reminder.overdue) {
+                    listener.taskOverdue(reminder.task);
+                } else {
+                    listener.taskDueSoon(reminder.task);
+                }
+            } catch (RuntimeException e) {
+                Logger.error("ReminderService", "Reminder listener failed: %s", e);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reschedules the task that published change, if its due date or status may have changed
+    @Override
+    public synchronized void todoChanged(Todo todo, TodoChange change) {
+        if (reminders.containsKey(todo) && isScheduled(change)) {
+            cancel((Task) todo);
+            schedule((Task) todo);
+        }
+    }
+
+    // EFFECTS: returns true if change concerns a field reminders are scheduled from
+    private static boolean isScheduled(TodoChange change) {
+        return change.changed(TodoChange.Field.DUE_DATE) || change.changed(TodoChange.Field.STATUS)
+                || change.changed(TodoChange.Field.DESCRIPTION);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules the next reminder of task, or counts it as overdue if its due date has passed
+    private void schedule(Task task) {
+        if (task.getDueDate() == null || task.getStatus() == Status.DONE) {
+            return;
+        }
+        long dueMillis = task.getDueDate().getDate().getTime();
+        long now = wheel.getCurrentMillis();
+        if (dueMillis <= now) {
+            overdue.add(task);
+        } else {
+            boolean dueSoon = dueMillis - leadMillis <= now;
+            Reminder reminder = new Reminder(task, dueMillis, dueSoon);
+            reminder.timer = wheel.schedule(reminder, dueSoon ? dueMillis : dueMillis - leadMillis);
+            reminders.put(task, reminder);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels the pending reminder of task, if any, and no longer counts it as overdue
+    private void cancel(Task task) {
+        Reminder reminder = reminders.put(task, null);
+        if (reminder != null) {
+            wheel.cancel(reminder.timer);
+        }
+        overdue.remove(task);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that reminder fired: an overdue task is counted, and a task due soon is scheduled
+    //          to become overdue
+    private void fire(Reminder reminder) {
+        if (reminder.overdue) {
+            reminders.put(reminder.task, null);
+            overdue.add(reminder.task);
+        } else {
+            Reminder next = new Reminder(reminder.task, reminder.dueMillis, true);
+            next.timer = wheel.schedule(next, reminder.dueMillis);
+            reminders.put(reminder.task, next);
+        }
+    }
+
+    // Represents a reminder of a task: that it is due soon, or that it is overdue
+    private static class Reminder {
+        private final Task task;
+        private final long dueMillis;
+        private final boolean overdue;
+        private TimingWheel.Timer<Reminder> timer;
+
+        private Reminder(Task task, long dueMillis, boolean overdue) {
+            this.task = task;
+            this.dueMillis = dueMillis;
+            this.overdue = overdue;
+        }
+    }
+}
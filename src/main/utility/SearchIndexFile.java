@@ -0,0 +1,89 @@
+package utility;
+
+import model.SearchIndex;
+import model.Task;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+// Search index file, saved next to the snapshot so that the search index need not be rebuilt on startup.
+// It records, for each word, the positions in the snapshot of the tasks whose description has that word,
+// and the checksum of the snapshot it was built from; it is only used with that exact snapshot.
+// Layout (big-endian):
+//   header      magic, version, snapshot checksum, task count, word count
+//   words       for each word: the word (modified UTF-8), the number of tasks having it, their positions
+public class SearchIndexFile {
+    public static final int MAGIC = 0x50544458;  // "PTDX"
+    public static final short VERSION = 1;
+
+    private SearchIndexFile() {
+    }
+
+    // EFFECTS: returns an index of tasks, the tasks of the snapshot with the given checksum, read from file;
+    //          returns null if file does not exist, was built from another snapshot, or cannot be read
+    public static SearchIndex read(File file, long snapshotChecksum, List<Task> tasks) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION || in.readLong() != snapshotChecksum
+                    || in.readInt() != tasks.size()) {
+                return null;
+            }
+            return decode(in, tasks);
+        } catch (IOException | IndexOutOfBoundsException e) {
+            Logger.warn("SearchIndexFile", "Ignoring unreadable search index %s: %s", file, e);
+            return null;
+        }
+    }
+
+    // MODIFIES: file
+    // EFFECTS: writes the search index of tasks, the tasks of the snapshot with the given checksum, to file;
+    //          the file is replaced atomically
+    public static void write(File file, long snapshotChecksum, List<Task> tasks) throws IOException {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            for (String word : SearchIndex.tokenize(tasks.get(i).getDescription())) {
+                positions.computeIfAbsent(word, w -> new ArrayList<>(1)).add(i);
+            }
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(snapshotChecksum);
+            out.writeInt(tasks.size());
+            out.writeInt(positions.size());
+            for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (int position : entry.getValue()) {
+                    out.writeInt(position);
+                }
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // EFFECTS: reads the words of in and returns an index of tasks filed under them
+    private static SearchIndex decode(DataInputStream in, List<Task> tasks) throws IOException {
+        List<List<String>> words = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            words.add(new ArrayList<>(4));
+        }
+        for (int w = in.readInt(); w > 0; w--) {
+            String word = in.readUTF();
+            for (int n = in.readInt(); n > 0; n--) {
+                words.get(in.readInt()).add(word);
+            }
+        }
+        SearchIndex index = new SearchIndex();
+        for (int i = 0; i < tasks.size(); i++) {
+            index.add(tasks.get(i), words.get(i).toArray(new String[0]));
+        }
+        return index;
+    }
+}
@@ -0,0 +1,57 @@
+package utility;
+
+import model.Task;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+// Represents an append-only log of Pomodoro sessions: one line of JSON per session, recording the task,
+// the phase, when it started and ended, and whether it was completed or stopped early.
+// Lines are only ever appended; the log is never rewritten.
+public class SessionLog {
+    public static final File DEFAULT_FILE = new File("./resources/json/sessions.log");
+
+    private final File file;
+    private FileChannel channel;
+
+    // EFFECTS: constructs a log stored in file; the file is opened when the first session is appended
+    public SessionLog(File file) {
+        this.file = file;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the session of task in phase from startMillis to endMillis, completed or not, and
+    //          forces it to disk
+    public synchronized void append(Task task, PomodoroEngine.Phase phase, long startMillis, long endMillis,
+                                    boolean completed) throws IOException {
+        JSONObject session = new JSONObject();
+        session.put("task", task.getDescription());
+        session.put("phase", phase.name());
+        session.put("start", startMillis);
+        session.put("end", endMillis);
+        session.put("completed", completed);
+        if (channel == null) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        ByteBuffer line = ByteBuffer.wrap((session.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        channel.force(false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the log; it is reopened if another session is appended
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package utility;
+
+import model.Task;
+import parsers.TaskReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Converts task snapshots between the JSON format and the binary format
+public class TaskFileConverter {
+
+    // EFFECTS: converts a snapshot as directed by args:
+    //            json2bin <in.json> <out.bin>   or   bin2json <in.bin> <out.json>
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !(args[0].equals("json2bin") || args[0].equals("bin2json"))) {
+            System.out.println("Usage: TaskFileConverter (json2bin | bin2json) <input> <output>");
+            return;
+        }
+        File in = new File(args[1]);
+        File out = new File(args[2]);
+        if (args[0].equals("json2bin")) {
+            jsonToBinary(in, out);
+        } else {
+            binaryToJson(in, out);
+        }
+        System.out.println("Converted " + in + " (" + in.length() + " bytes) to " + out + " (" + out.length()
+                + " bytes)");
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the tasks of the JSON snapshot in to out in the binary format
+    public static void jsonToBinary(File in, File out) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        try (TaskReader reader = JsonFileIO.openReader(new FileInputStream(in))) {
+            reader.forEachRemaining(tasks::add);
+        }
+        BinaryTaskFile.write(out, tasks);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the tasks of the binary snapshot in to out in the JSON format
+    public static void binaryToJson(File in, File out) throws IOException {
+        JsonFileIO.writeSnapshot(out, BinaryTaskFile.read(in, null));
+    }
+}
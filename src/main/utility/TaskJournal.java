@@ -0,0 +1,235 @@
+package utility;
+
+import model.Task;
+import org.json.JSONObject;
+import parsers.JsonTokenizer;
+import parsers.TaskParser;
+import parsers.exceptions.ParsingException;
+import persistence.Jsonifier;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Represents an append-only log of mutations made to a list of tasks since the last snapshot.
+// Each record is one line of JSON; the first line names the checksum of the snapshot the records apply to,
+// so a log left over from before the latest snapshot is recognised and ignored.
+public class TaskJournal {
+    public static final int SYNC_BATCH = 32;
+    public static final long SYNC_INTERVAL_MS = 1000;
+
+    // Kinds of mutation recorded in the journal
+    public enum Operation {
+        ADD, REMOVE, UPDATE
+    }
+
+    private final File file;
+    private FileChannel channel;
+    private int recordCount;
+    private int unsynced;
+    private boolean damaged;
+    private long lastSync;
+
+    // EFFECTS: constructs a journal stored in file
+    public TaskJournal(File file) {
+        this.file = file;
+    }
+
+    // EFFECTS: returns true if the journal is open for appending
+    public boolean isOpen() {
+        return channel != null;
+    }
+
+    // EFFECTS: returns the number of records appended since the last reset
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    // EFFECTS: returns the JSON line recording that operation was applied at index;
+    //          task is the task added or updated, and is ignored for REMOVE
+    public static String record(Operation operation, int index, Task task) {
+        JSONObject recordJson = new JSONObject();
+        recordJson.put("op", operation.name());
+        recordJson.put("index", index);
+        if (operation != Operation.REMOVE) {
+            recordJson.put("task", Jsonifier.taskToJson(task));
+        }
+        return recordJson.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends record to the journal; the journal is forced to disk when SYNC_BATCH records have been
+    //          appended since the last sync, or when record is appended SYNC_INTERVAL_MS or more after it
+    // Note: nothing forces records to disk while no record is appended; a caller that may then stay idle (e.g.,
+    //       waiting for input) calls sync() once it has appended its records
+    public void append(String record) throws IOException {
+        write(record);
+        recordCount++;
+        unsynced++;
+        if (unsynced >= SYNC_BATCH || System.currentTimeMillis() - lastSync >= SYNC_INTERVAL_MS) {
+            sync();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces any appended records to disk
+    public void sync() throws IOException {
+        if (channel != null && unsynced > 0) {
+            channel.force(false);
+        }
+        unsynced = 0;
+        lastSync = System.currentTimeMillis();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: discards every record and starts a new journal over the snapshot with the given checksum
+    public void reset(long snapshotChecksum) throws IOException {
+        close();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        write(new JSONObject().put("snapshot", snapshotChecksum).toString());
+        channel.force(false);
+        recordCount = 0;
+        unsynced = 0;
+        damaged = false;
+    }
+
+    // MODIFIES: this, tasks
+    // EFFECTS: applies the records in the journal to tasks, which must be the content of the snapshot
+    //          with the given checksum, and reopens the journal for appending; returns the number of
+    //          records applied. A journal written over a different snapshot is discarded.
+    //          Replay stops at the first record that cannot be parsed or applied (e.g., a torn final write);
+    //          the journal is then left closed and isDamaged() is true until it is reset.
+    public int replay(List<Task> tasks, long snapshotChecksum) throws IOException {
+        close();
+        damaged = false;
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                if (readHeader(reader.readLine()) == snapshotChecksum) {
+                    int applied = replay(reader, tasks);
+                    if (!damaged) {
+                        reopen(applied);
+                    }
+                    return applied;
+                }
+            }
+        }
+        reset(snapshotChecksum);
+        return 0;
+    }
+
+    // EFFECTS: returns true if the last replay stopped at a damaged record
+    public boolean isDamaged() {
+        return damaged;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the journal file
+    public void close() throws IOException {
+        if (channel != null) {
+            sync();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reopens the journal for appending after recordCount intact records
+    private void reopen(int recordCount) throws IOException {
+        close();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.recordCount = recordCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes line to the end of the journal
+    private void write(String line) throws IOException {
+        if (channel == null) {
+            throw new IOException("Journal " + file + " is not open");
+        }
+        ByteBuffer bytes = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    // EFFECTS: returns the snapshot checksum named by header, or -1 if header is missing or malformed
+    private long readHeader(String header) {
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return new JSONObject(header).getLong("snapshot");
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    // MODIFIES: this, reader, tasks
+    // EFFECTS: applies records read from reader to tasks until one is malformed or the input ends;
+    //          returns the number of records applied
+    private int replay(BufferedReader reader, List<Task> tasks) throws IOException {
+        TaskParser parser = new TaskParser();
+        int applied = 0;
+        String line = reader.readLine();
+        while (line != null) {
+            try {
+                apply(parser, new JsonTokenizer(new StringReader(line)), tasks);
+            } catch (ParsingException | RuntimeException e) {
+                Logger.warn("TaskJournal", "Journal replay stopped at damaged record %d", applied + 1);
+                damaged = true;
+                return applied;
+            }
+            applied++;
+            line = reader.readLine();
+        }
+        return applied;
+    }
+
+    // MODIFIES: tokenizer, tasks
+    // EFFECTS: reads one record from tokenizer and applies it to tasks
+    //   throws ParsingException if the record is malformed or its index is out of range
+    private void apply(TaskParser parser, JsonTokenizer tokenizer, List<Task> tasks)
+            throws IOException, ParsingException {
+        Operation operation = null;
+        int index = -1;
+        Task task = null;
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            String name = tokenizer.nextName();
+            if (name.equals("op")) {
+                operation = Operation.valueOf(tokenizer.nextString());
+            } else if (name.equals("index")) {
+                index = tokenizer.nextInt();
+            } else if (name.equals("task")) {
+                task = parser.parseTask(tokenizer);
+            } else {
+                tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+        apply(operation, index, task, tasks);
+    }
+
+    // MODIFIES: tasks, the tags of the task removed or replaced
+    // EFFECTS: applies operation at index to tasks; the task removed or replaced is removed from the tasks of its
+    //          tags
+    //   throws ParsingException if the operation is incomplete or its index is out of range
+    private void apply(Operation operation, int index, Task task, List<Task> tasks) throws ParsingException {
+        int bound = operation == Operation.ADD ? tasks.size() : tasks.size() - 1;
+        if (operation == null || index < 0 || index > bound || (operation != Operation.REMOVE && task == null)) {
+            throw new ParsingException("Journal record cannot be applied");
+        }
+        if (operation == Operation.ADD) {
+            tasks.add(index, task);
+        } else if (operation == Operation.REMOVE) {
+            tasks.remove(index).detachFromTags();
+        } else {
+            tasks.set(index, task).detachFromTags();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package utility;
+
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel: schedules items to expire at a given time, to the nearest tick.
+// Level 0 has one slot per tick; each slot of level l spans SLOTS^l ticks. An item is filed in the level
+// whose span covers its distance from the current tick, and moves down a level each time the wheel turns
+// past the slot it is in, until it expires from level 0. Scheduling and cancelling take constant time,
+// whatever the number of items; advancing takes constant time per tick plus the items expired or moved.
+// Items due beyond the range of the top level wait in its farthest slot and are refiled when it comes round.
+// Not thread-safe.
+public class TimingWheel<T> {
+    public static final int SLOT_BITS = 6;
+    public static final int SLOTS = 1 << SLOT_BITS;
+    public static final int LEVELS = 5;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    // REQUIRES: tickMillis > 0
+    // EFFECTS: constructs an empty wheel of ticks of tickMillis milliseconds, starting at nowMillis
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+        slots = (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[level][slot] = new Timer<>(null, 0);
+                slots[level][slot].prev = slots[level][slot];
+                slots[level][slot].next = slots[level][slot];
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules item to expire at deadlineMillis (or on the next tick, if that is past) and returns
+    //          its timer, with which it can be cancelled
+    public Timer<T> schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis, tickMillis) + (deadlineMillis % tickMillis == 0 ? 0 : 1);
+        Timer<T> timer = new Timer<>(item, Math.max(deadlineTick, currentTick + 1));
+        file(timer);
+        size++;
+        return timer;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels timer; returns false if it had already expired or been cancelled
+    public boolean cancel(Timer<T> timer) {
+        if (timer.prev == null) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: turns the wheel tick by tick up to nowMillis, passing the item of each timer that expires to
+    //          expired, in order of expiry (in no particular order within a tick); does nothing if nowMillis
+    //          is not after the current tick. expired may schedule new items, but not cancel timers
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                return;
+            }
+            currentTick++;
+            cascade(1);
+            expire(slots[0][(int) (currentTick & MASK)], expired);
+        }
+    }
+
+    // EFFECTS: returns the number of timers scheduled and not yet expired or cancelled
+    public int size() {
+        return size;
+    }
+
+    // EFFECTS: returns the time of the current tick, in milliseconds
+    public long getCurrentMillis() {
+        return currentTick * tickMillis;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: when the wheel has turned past a slot of level, refiles its timers in the levels below,
+    //          having first done the same for the level above
+    private void cascade(int level) {
+        if (level >= LEVELS || (currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        Timer<T> head = slots[level][(int) ((currentTick >>> (SLOT_BITS * level)) & MASK)];
+        Timer<T> timer = head.next;
+        while (timer != head) {
+            Timer<T> next = timer.next;
+            unlink(timer);
+            file(timer);
+            timer = next;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every timer of the slot at head, passing the items of those that are due to expired
+    //          and refiling the others
+    private void expire(Timer<T> head, Consumer<T> expired) {
+        Timer<T> timer = head.next;
+        while (timer != head) {
+            Timer<T> next = timer.next;
+            unlink(timer);
+            if (timer.deadlineTick <= currentTick) {
+                size--;
+                expired.accept(timer.item);
+            } else {
+                file(timer);
+            }
+            timer = next;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: links timer into the slot of the level whose span covers its distance from the current tick
+    private void file(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long tick = delta >= 1L << (SLOT_BITS * LEVELS) ? currentTick - 1 : timer.deadlineTick;
+        Timer<T> head = slots[level][(int) ((tick >>> (SLOT_BITS * level)) & MASK)];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unlinks timer from its slot
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    // Represents an item scheduled in a timing wheel, linked into the slot it is filed in
+    public static final class Timer<T> {
+        private final T item;
+        private final long deadlineTick;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        // EFFECTS: returns the scheduled item
+        public T getItem() {
+            return item;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package utility;
+
+import model.Task;
+import model.TaskStore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Represents a background persistence service: every save is performed on a single writer thread,
+// in the order the mutations were made, so the caller (usually the JavaFX application thread) never
+// waits for the disk.
+// Journal records are built on the caller's thread and appended by the writer, which forces them to disk
+// once the queue drains. Requests to save every task are coalesced: when several are queued, only the
+// most recent one is written, so the last state always wins.
+// As a listener of a task store, saves every change made to it, in the order they are made.
+// Note: the taskAdded/taskRemoved/taskUpdated/saveAll methods must not be called concurrently; the listeners of a
+// task store are called one change at a time
+public class WriteBehindSaver implements TaskStore.Listener {
+    public static final int QUEUE_DEPTH_WARNING = 100;
+
+    private final ExecutorService writer;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong latestSave = new AtomicLong();
+    private final AtomicLong saves = new AtomicLong();
+    private final AtomicLong totalSaveNanos = new AtomicLong();
+    private final AtomicLong maxSaveNanos = new AtomicLong();
+    private int recordsSinceSnapshot;
+
+    // REQUIRES: JsonFileIO.read() has been called
+    // EFFECTS: constructs a saver with its own writer thread
+    public WriteBehindSaver() {
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recordsSinceSnapshot = JsonFileIO.getJournalRecordCount();
+    }
+
+    // REQUIRES: task at index in tasks has just been added
+    // EFFECTS: schedules the addition of the task at index in tasks to be saved
+    public void taskAdded(List<Task> tasks, int index) {
+        record(tasks, false, TaskJournal.Operation.ADD, index);
+    }
+
+    // REQUIRES: the task at index has just been removed from tasks
+    // EFFECTS: schedules the removal of the task that was at index in tasks to be saved
+    public void taskRemoved(List<Task> tasks, int index) {
+        record(tasks, false, TaskJournal.Operation.REMOVE, index);
+    }
+
+    // REQUIRES: task at index in tasks has just been modified
+    // EFFECTS: schedules the modification of the task at index in tasks to be saved
+    public void taskUpdated(List<Task> tasks, int index) {
+        record(tasks, false, TaskJournal.Operation.UPDATE, index);
+    }
+
+    // EFFECTS: schedules change to be saved: one journal record per task added, removed or updated, or every
+    //          task on reset. Saves the frozen copies of the tasks in the version made by change, so a save never
+    //          sees an edit made later, even half-way, and never needs to copy the tasks.
+    @Override
+    public void taskStoreChanged(TaskStore.Change change) {
+        List<Task> tasks = change.getVersion().getFrozenTasks();
+        switch (change.getKind()) {
+            case ADDED:
+                for (int i = 0; i < change.getTasks().size(); i++) {
+                    record(tasks, true, TaskJournal.Operation.ADD, change.getIndex() + i);
+                }
+                break;
+            case REMOVED:
+                record(tasks, true, TaskJournal.Operation.REMOVE, change.getIndex());
+                break;
+            case UPDATED:
+                record(tasks, true, TaskJournal.Operation.UPDATE, change.getIndex());
+                break;
+            default:
+                save(tasks);
+        }
+    }
+
+    // EFFECTS: schedules every task in tasks to be saved; supersedes any save of every task still queued
+    public void saveAll(List<Task> tasks) {
+        save(new ArrayList<>(tasks));
+    }
+
+    // EFFECTS: schedules every task in snapshot, which never changes, to be saved; supersedes any save of every
+    //          task still queued
+    private void save(List<Task> snapshot) {
+        long generation = latestSave.incrementAndGet();
+        recordsSinceSnapshot = 0;
+        submit(() -> {
+            if (generation != latestSave.get()) {
+                return false;
+            }
+            JsonFileIO.write(snapshot);
+            Logger.info("WriteBehindSaver", "Saved %d tasks; %s", snapshot.size(), getStatistics());
+            return true;
+        });
+    }
+
+    // EFFECTS: returns the number of saves queued or in progress
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    // EFFECTS: returns the mean time taken by a save, in milliseconds
+    public double getAverageSaveMillis() {
+        long count = saves.get();
+        return count == 0 ? 0 : totalSaveNanos.get() / (count * 1e6);
+    }
+
+    // EFFECTS: returns the longest time taken by a save, in milliseconds
+    public double getMaxSaveMillis() {
+        return maxSaveNanos.get() / 1e6;
+    }
+
+    // EFFECTS: returns a summary of save latency and queue depth
+    public String getStatistics() {
+        return String.format("%d saves, mean %.2f ms, max %.2f ms, queue depth %d",
+                saves.get(), getAverageSaveMillis(), getMaxSaveMillis(), getQueueDepth());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: performs every queued save, closes the journal, and stops the writer thread;
+    //          waits at most timeoutMillis for the queue to drain
+    public void shutdown(long timeoutMillis) throws InterruptedException {
+        submit(() -> {
+            JsonFileIO.close();
+            return false;
+        });
+        writer.shutdown();
+        if (!writer.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            Logger.warn("WriteBehindSaver", "Gave up waiting for %d queued saves", getQueueDepth());
+        }
+    }
+
+    // EFFECTS: schedules a journal record of operation at index in tasks; when the journal is due for
+    //          compaction, or mutations are not journaled, schedules a save of every task instead, copying
+    //          tasks first unless they never change
+    private void record(List<Task> tasks, boolean immutable, TaskJournal.Operation operation, int index) {
+        if (!JsonFileIO.isJournaled() || recordsSinceSnapshot + 1 >= JsonFileIO.COMPACTION_THRESHOLD) {
+            save(immutable ? tasks : new ArrayList<>(tasks));
+            return;
+        }
+        Task task = operation == TaskJournal.Operation.REMOVE ? null : tasks.get(index);
+        String record = TaskJournal.record(operation, index, task);
+        recordsSinceSnapshot++;
+        submit(() -> {
+            JsonFileIO.append(record);
+            return true;
+        });
+    }
+
+    // EFFECTS: queues save to run on the writer thread, timing it if it writes anything and forcing the
+    //          journal to disk when no other save is queued behind it
+    private void submit(Save save) {
+        int depth = queueDepth.incrementAndGet();
+        if (depth % QUEUE_DEPTH_WARNING == 0) {
+            Logger.warn("WriteBehindSaver", "Disk is falling behind; %s", getStatistics());
+        }
+        writer.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                if (save.run()) {
+                    if (queueDepth.get() == 1) {
+                        JsonFileIO.sync();
+                    }
+                    recordLatency(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                Logger.error("WriteBehindSaver", "Save failed: %s", e.getMessage());
+            } finally {
+                queueDepth.decrementAndGet();
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a save taking the given time to the statistics
+    private void recordLatency(long nanos) {
+        saves.incrementAndGet();
+        totalSaveNanos.addAndGet(nanos);
+        maxSaveNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // A unit of work for the writer thread; returns true if it wrote anything
+    private interface Save {
+        boolean run() throws IOException;
+    }
+}
@@ -19,6 +19,7 @@ class TestProject {
 
     @BeforeEach
     public void runBefore() {
+        Project.setVerifyRollups(true);
         p = new Project("Project1");
         p2 = new Project("Project2");
         task1 = new Task("task1 ## today; cpsc210");
@@ -255,6 +256,96 @@ class TestProject {
         assertEquals(24, p2.getEstimatedTimeToComplete());
     }
 
+    @Test
+    void testNestedRollupFollowsLeafChanges() {
+        p.add(task1);
+        p.add(task2);
+        p2.add(task3);
+        p2.add(p);
+        Project p3 = new Project("Project3");
+        p3.add(p2);
+
+        task1.setEstimatedTimeToComplete(5);
+        task3.setEstimatedTimeToComplete(3);
+        assertEquals(5, p.getEstimatedTimeToComplete());
+        assertEquals(8, p3.getEstimatedTimeToComplete());
+
+        task1.setProgress(100);
+        task3.setProgress(40);
+        assertEquals(50, p.getProgress());
+        assertEquals(45, p2.getProgress());
+        assertEquals(45, p3.getProgress());
+
+        p.remove(task1);
+        assertEquals(0, p.getEstimatedTimeToComplete());
+        assertEquals(3, p3.getEstimatedTimeToComplete());
+        assertEquals(20, p3.getProgress());
+    }
+
+    @Test
+    void testRemovedTaskNoLongerUpdatesProject() {
+        p.add(task1);
+        assertEquals(1, task1.countListeners());
+        p.remove(task1);
+        assertEquals(0, task1.countListeners());
+        task1.setEstimatedTimeToComplete(4);
+        assertEquals(0, p.getEstimatedTimeToComplete());
+    }
+
+    @Test
+    void testAddAllPublishesOneChange() {
+        List<TodoChange> changes = new ArrayList<>();
+        p.addListener((todo, change) -> changes.add(change));
+        p2.add(p);
+        task1.setEstimatedTimeToComplete(2);
+        task2.setEstimatedTimeToComplete(3);
+        task2.setProgress(50);
+        p.addAll(Arrays.asList(task1, task2, task1));
+        assertEquals(2, p.getNumberOfTasks());
+        assertEquals(1, changes.size());
+        assertEquals(5, changes.get(0).getEstimatedTimeDelta());
+        assertEquals(25, changes.get(0).getProgressDelta());
+        assertEquals(5, p2.getEstimatedTimeToComplete());
+        assertEquals(25, p2.getProgress());
+
+        p.removeAll(Arrays.asList(task1, task3));
+        assertEquals(2, changes.size());
+        assertEquals(-2, changes.get(1).getEstimatedTimeDelta());
+        assertEquals(3, p2.getEstimatedTimeToComplete());
+    }
+
+    @Test
+    void testBatchDefersChildChanges() {
+        List<TodoChange> changes = new ArrayList<>();
+        p.addListener((todo, change) -> changes.add(change));
+        p.batch(() -> {
+            p.add(task1);
+            p.batch(() -> task1.setEstimatedTimeToComplete(4));
+            assertTrue(p.isBatching());
+            task1.setProgress(60);
+            assertEquals(60, p.getProgress());
+        });
+        assertFalse(p.isBatching());
+        assertEquals(1, changes.size());
+        assertEquals(4, changes.get(0).getEstimatedTimeDelta());
+        assertEquals(60, changes.get(0).getProgressDelta());
+        p.batch(() -> { });
+        assertEquals(1, changes.size());
+    }
+
+    @Test
+    void testBatchPublishesWhenEditsThrow() {
+        List<TodoChange> changes = new ArrayList<>();
+        p.addListener((todo, change) -> changes.add(change));
+        task1.setEstimatedTimeToComplete(1);
+        assertThrows(NullArgumentException.class, () -> p.addAll(Arrays.asList(task1, null, task2)));
+        assertTrue(p.contains(task1));
+        assertFalse(p.contains(task2));
+        assertEquals(1, changes.size());
+        assertFalse(p.isBatching());
+        assertThrows(NullArgumentException.class, () -> p.removeAll(null));
+    }
+
     @Test
     void testIsCompleted() {
         assertFalse(p.isCompleted());
@@ -301,6 +392,87 @@ class TestProject {
         }
     }
 
+    @Test
+    void testIteratorFollowsPriorityChanges() {
+        p.add(task1);
+        p.add(task3);
+        p.add(task4);
+        task1.setPriority(new Priority(2));
+        task4.setDescription("task4 ## important");
+
+        List<Todo> check = new ArrayList<>();
+        for (Todo t : p) {
+            check.add(t);
+        }
+        assertEquals(3, check.size());
+        assertSame(task3, check.get(0));
+        assertSame(task4, check.get(1));
+        assertSame(task1, check.get(2));
+    }
+
+    @Test
+    void testIteratorKeepsOrderAfterDescriptionChange() {
+        task1.setPriority(new Priority(4));
+        task2.setPriority(new Priority(4));
+        task3.setPriority(new Priority(4));
+        p.addAll(Arrays.asList(task1, task2, task3));
+        task1.setDescription("task1 renamed");
+        assertIterates(p, task1, task2, task3);
+        Task copy = new Task("task1 renamed");
+        copy.setPriority(task1.getPriority());
+        copy.setDueDate(task1.getDueDate());
+        copy.setStatus(task1.getStatus());
+        assertTrue(p.contains(copy));
+        copy.setDescription("task1");
+        assertFalse(p.contains(copy));
+    }
+
+    @Test
+    void testIteratorKeepsOrderAfterPriorityChangeAndBack() {
+        task1.setPriority(new Priority(4));
+        task2.setPriority(new Priority(4));
+        task3.setPriority(new Priority(4));
+        task4.setPriority(new Priority(4));
+        p.addAll(Arrays.asList(task1, task2, task3, task4));
+        task2.setPriority(new Priority(1));
+        task3.setPriority(new Priority(1));
+        task1.setPriority(new Priority(1));
+        assertIterates(p, task1, task2, task3, task4);
+        task2.setPriority(new Priority(4));
+        assertIterates(p, task1, task3, task2, task4);
+        task1.setPriority(new Priority(4));
+        task3.setPriority(new Priority(4));
+        assertIterates(p, task1, task2, task3, task4);
+    }
+
+    @Test
+    void testContainsEqualTask() {
+        Task task = new Task("task5 ## cpsc210; important");
+        p.add(task);
+        Task copy = new Task("task5 ## important");
+        assertTrue(p.contains(copy));
+        p.add(copy);
+        assertEquals(1, p.getNumberOfTasks());
+
+        task.setDescription("renamed");
+        assertFalse(p.contains(copy));
+        assertTrue(p.contains(task));
+        copy.setDescription("renamed");
+        p.remove(copy);
+        assertEquals(0, p.getNumberOfTasks());
+    }
+
+    private static void assertIterates(Project project, Todo... expected) {
+        List<Todo> check = new ArrayList<>();
+        for (Todo t : project) {
+            check.add(t);
+        }
+        assertEquals(expected.length, check.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], check.get(i));
+        }
+    }
+
     @Test
     void testIteratorNextExceptionExpected() {
         Iterator itr = p.iterator();
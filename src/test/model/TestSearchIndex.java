@@ -0,0 +1,84 @@
+package model;
+
+import model.exceptions.NullArgumentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSearchIndex {
+    private SearchIndex index;
+    private Task task1;
+    private Task task2;
+    private Task task3;
+
+    @BeforeEach
+    public void runBefore() {
+        task1 = new Task("Read chapter 5 of the Textbook");
+        task2 = new Task("Write the lab report, then read it again ## cpsc210");
+        task3 = new Task("Buy milk");
+        index = new SearchIndex(Arrays.asList(task1, task2, task3));
+    }
+
+    @Test
+    void testTokenize() {
+        assertArrayEquals(new String[] {"write", "the", "report", "then", "read", "again"},
+                SearchIndex.tokenize("Write the report, then read THE report again!"));
+        assertArrayEquals(new String[] {"cpsc210", "a"}, SearchIndex.tokenize("  CPSC210...a!"));
+        assertArrayEquals(new String[0], SearchIndex.tokenize(" ;,. "));
+    }
+
+    @Test
+    void testSearchWholeWordsAndPrefixes() {
+        assertEquals(set(task1, task2), set(index.search("read")));
+        assertEquals(set(task1, task2), set(index.search("RE")));
+        assertEquals(set(task1), set(index.search("text")));
+        assertEquals(set(task2), set(index.search("the rep")));
+        assertEquals(set(), set(index.search("milk read")));
+        assertEquals(set(), set(index.search("ilk")));
+        assertEquals(set(), set(index.search(" , ")));
+    }
+
+    @Test
+    void testAddRemove() {
+        assertEquals(3, index.size());
+        index.add(task1);
+        assertEquals(3, index.size());
+        index.remove(task3);
+        assertFalse(index.contains(task3));
+        assertEquals(set(), set(index.search("milk")));
+        task3.setDescription("Buy more milk");
+        assertEquals(set(), set(index.search("milk")));
+        assertThrows(NullArgumentException.class, () -> index.add(null));
+    }
+
+    @Test
+    void testFollowsDescriptionChanges() {
+        task3.setDescription("Buy oat milk ## today");
+        assertEquals(set(task3), set(index.search("oat")));
+        task3.setDescription("Return the textbook");
+        assertEquals(set(), set(index.search("milk")));
+        assertEquals(set(task1, task3), set(index.search("textbook")));
+    }
+
+    @Test
+    void testRetainOnly() {
+        Task task4 = new Task("Read the news");
+        index.retainOnly(Arrays.asList(task2, task4));
+        assertEquals(2, index.size());
+        assertEquals(set(task2, task4), set(index.search("read")));
+        assertEquals(set(), set(index.search("milk")));
+    }
+
+    private static Set<Task> set(Collection<Task> tasks) {
+        Set<Task> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(tasks);
+        return set;
+    }
+
+    private static Set<Task> set(Task... tasks) {
+        return set(Arrays.asList(tasks));
+    }
+}
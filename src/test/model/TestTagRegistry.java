@@ -0,0 +1,60 @@
+package model;
+
+import model.exceptions.EmptyStringException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTagRegistry {
+    private Task task1;
+    private Task task2;
+
+    @BeforeEach
+    void runBefore() {
+        task1 = new Task("task1 ## registryTag1; registryTag2");
+        task2 = new Task("task2 ## registryTag1");
+    }
+
+    @Test
+    void testInternSharesTag() {
+        Tag tag = TagRegistry.intern("registryTag1");
+        assertSame(tag, TagRegistry.intern("registryTag1"));
+        assertSame(tag, TagRegistry.lookup("registryTag1"));
+        assertNull(TagRegistry.lookup("registryTagNeverUsed"));
+    }
+
+    @Test
+    void testInternedTagIndexesTasks() {
+        Tag tag = TagRegistry.lookup("registryTag1");
+        assertTrue(tag.containsTask(task1));
+        assertTrue(tag.containsTask(task2));
+        assertFalse(TagRegistry.lookup("registryTag2").containsTask(task2));
+
+        task1.removeTag("registryTag1");
+        assertFalse(tag.containsTask(task1));
+        assertTrue(tag.getTasks().contains(task2));
+    }
+
+    @Test
+    void testTagsWithSameNameShareTasks() {
+        Tag tag = new Tag("registryTag1");
+        assertNotSame(tag, TagRegistry.lookup("registryTag1"));
+        assertTrue(tag.containsTask(task1));
+
+        Task task3 = new Task("task3");
+        tag.addTask(task3);
+        assertTrue(TagRegistry.lookup("registryTag1").containsTask(task3));
+        assertTrue(task3.containsTag("registryTag1"));
+    }
+
+    @Test
+    void testLookupExceptionExpected() {
+        try {
+            TagRegistry.lookup("");
+            fail("EmptyStringException expected");
+        } catch (EmptyStringException e) {
+            // expected
+        }
+    }
+}
@@ -8,7 +8,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -288,4 +290,111 @@ class TestTask {
             // expected
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFrozenCopy() {
+        t.addTag(tag);
+        t.setProgress(30);
+        Task frozen = t.frozenCopy();
+        assertTrue(frozen.isFrozen());
+        assertFalse(t.isFrozen());
+        assertSame(frozen, frozen.frozenCopy());
+        assertEquals(t, frozen);
+        assertEquals(30, frozen.getProgress());
+        assertTrue(frozen.containsTag(tag));
+        assertFalse(tag.getTasks().contains(frozen));
+
+        t.setDescription("Changed");
+        t.removeTag(tag);
+        t.getPriority().setUrgent(false);
+        assertEquals("This is a task", frozen.getDescription());
+        assertTrue(frozen.containsTag(tag));
+        assertTrue(frozen.getPriority().isUrgent());
+    }
+
+    @Test
+    void testFrozenCopyCannotChange() {
+        Task frozen = t.frozenCopy();
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setDescription("Changed"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setStatus(Status.DONE));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setProgress(10));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setPriority(new Priority(4)));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setDueDate(tomorrow));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.addTag(tag));
+        assertEquals(Status.IN_PROGRESS, frozen.getStatus());
+    }
+
+    @Test
+    void testFrozenCopyReturnsCopies() {
+        t.setDueDate(tomorrow);
+        Task frozen = t.frozenCopy();
+        frozen.getPriority().setUrgent(!frozen.getPriority().isUrgent());
+        frozen.getDueDate().postponeOneWeek();
+        assertEquals(t.getPriority(), frozen.getPriority());
+        assertEquals(t.getDueDate(), frozen.getDueDate());
+        assertEquals(t, frozen);
+        assertSame(t.getPriority(), t.getPriority());
+    }
+
+    @Test
+    void testRestore() {
+        t.addTag(tag);
+        Task before = t.frozenCopy();
+        t.setDescription("Changed ## important; tomorrow; done; other");
+        t.removeTag(tag);
+        t.setProgress(50);
+        t.restore(before);
+        assertEquals("This is a task", t.getDescription());
+        assertTrue(t.containsTag(tag));
+        assertFalse(t.containsTag("other"));
+        assertEquals(Status.IN_PROGRESS, t.getStatus());
+        assertEquals(before.getPriority(), t.getPriority());
+        assertEquals(before.getDueDate(), t.getDueDate());
+        assertEquals(0, t.getProgress());
+        assertThrows(UnsupportedOperationException.class, () -> before.restore(t));
+    }
+
+    @Test
+    void testListeners() {
+        List<String> seen = new ArrayList<>();
+        TodoListener first = (todo, change) -> seen.add("first " + change.getProgressDelta());
+        TodoListener second = (todo, change) -> seen.add("second " + change.getFields());
+        t.addListener(first);
+        t.addListener(second);
+        t.addListener(first);
+        assertEquals(2, t.countListeners());
+        t.setProgress(30);
+        assertEquals(Arrays.asList("second [PROGRESS]", "first 30"), seen);
+
+        t.removeListener(second);
+        t.removeListener(second);
+        t.setProgress(30);
+        t.setEstimatedTimeToComplete(2);
+        assertEquals(Arrays.asList("second [PROGRESS]", "first 30", "first 0"), seen);
+        assertThrows(NullArgumentException.class, () -> t.addListener(null));
+    }
+
+    @Test
+    void testConcurrentListenerChanges() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 250; j++) {
+                    int[] calls = new int[1];
+                    TodoListener listener = (todo, change) -> calls[0]++;
+                    t.addListener(listener);
+                    t.setProgress(j % 100);
+                    if (j % 2 == 0) {
+                        t.removeListener(listener);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4 * 125, t.countListeners());
+    }
+}
@@ -0,0 +1,108 @@
+package model;
+
+import model.exceptions.NullArgumentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTaskIndex {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long BASE = 1546300800000L;
+    private TaskIndex index;
+    private Task task1;
+    private Task task2;
+    private Task task3;
+    private Task task4;
+
+    @BeforeEach
+    public void runBefore() {
+        task1 = new Task("read notes ## index1; in progress; important");
+        task2 = new Task("write report ## index1; index2; urgent");
+        task3 = new Task("email report ## index2; important; urgent; done");
+        task4 = new Task("plan meeting");
+        task1.setDueDate(new DueDate(new Date(BASE)));
+        task2.setDueDate(new DueDate(new Date(BASE + DAY)));
+        task3.setDueDate(new DueDate(new Date(BASE + 2 * DAY)));
+        index = new TaskIndex(Arrays.asList(task1, task2, task3, task4));
+    }
+
+    @Test
+    void testAddRemove() {
+        assertEquals(4, index.size());
+        index.add(task1);
+        assertEquals(4, index.size());
+        index.remove(task1);
+        assertFalse(index.contains(task1));
+        assertEquals(set(task2), find(new TaskQuery().withTag("index1")));
+        task1.setStatus(Status.DONE);
+        assertEquals(set(task3), find(new TaskQuery().withStatus(Status.DONE)));
+        assertThrows(NullArgumentException.class, () -> index.add(null));
+    }
+
+    @Test
+    void testEmptyQueryMatchesEverything() {
+        assertEquals(set(task1, task2, task3, task4), find(new TaskQuery()));
+    }
+
+    @Test
+    void testSingleConditions() {
+        assertEquals(set(task1, task2), find(new TaskQuery().withTag("index1")));
+        assertEquals(set(), find(new TaskQuery().withTag("no such tag in index")));
+        assertEquals(set(task1), find(new TaskQuery().withStatus(Status.IN_PROGRESS)));
+        assertEquals(set(task3), find(new TaskQuery().withPriority(new Priority(1))));
+        assertEquals(set(task4), find(new TaskQuery().withoutDueDate()));
+        assertEquals(set(task2, task3), find(new TaskQuery().descriptionContains("PORT")));
+        assertEquals(set(task1, task2),
+                find(new TaskQuery().dueBetween(new Date(BASE), new Date(BASE + 2 * DAY))));
+    }
+
+    @Test
+    void testConjunctions() {
+        assertEquals(set(task2), find(new TaskQuery().withTag("index1").withTag("index2")));
+        assertEquals(set(task3), find(new TaskQuery().withTag("index2").descriptionContains("email")));
+        assertEquals(set(task2),
+                find(new TaskQuery().withTag("index2").dueBetween(new Date(BASE), new Date(BASE + 2 * DAY))));
+        assertEquals(set(), find(new TaskQuery().withStatus(Status.DONE).withStatus(Status.TODO)));
+        assertEquals(set(), find(new TaskQuery().dueBetween(new Date(BASE + DAY), new Date(BASE))));
+    }
+
+    @Test
+    void testLimit() {
+        assertEquals(2, index.find(new TaskQuery().limit(2)).size());
+        assertEquals(1, index.find(new TaskQuery().withTag("index1").limit(1)).size());
+        assertEquals(1, index.find(new TaskQuery().dueBetween(new Date(BASE), new Date(BASE + 3 * DAY)).limit(1))
+                .size());
+    }
+
+    @Test
+    void testFollowsTaskChanges() {
+        task4.addTag("index1");
+        task1.removeTag("index1");
+        assertEquals(set(task2, task4), find(new TaskQuery().withTag("index1")));
+        task4.setStatus(Status.UP_NEXT);
+        assertEquals(set(task4), find(new TaskQuery().withStatus(Status.UP_NEXT)));
+        task4.setPriority(new Priority(2));
+        assertEquals(set(task1, task4), find(new TaskQuery().withPriority(new Priority(2))));
+        task4.setDueDate(new DueDate(new Date(BASE + DAY)));
+        task1.setDueDate(null);
+        assertEquals(set(task2, task4),
+                find(new TaskQuery().dueBetween(new Date(BASE), new Date(BASE + DAY + 1))));
+        task2.setDescription("write report ## done");
+        assertEquals(set(task2, task3), find(new TaskQuery().withStatus(Status.DONE)));
+    }
+
+    private Set<Task> find(TaskQuery query) {
+        Set<Task> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        found.addAll(index.find(query));
+        return found;
+    }
+
+    private static Set<Task> set(Task... tasks) {
+        Set<Task> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(Arrays.asList(tasks));
+        return set;
+    }
+}
@@ -0,0 +1,251 @@
+package model;
+
+import model.exceptions.EmptyStringException;
+import model.exceptions.NullArgumentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTaskStore {
+    private TaskStore store;
+    private List<TaskStore.Change> changes;
+    private Task task1;
+    private Task task2;
+
+    @BeforeEach
+    void runBefore() {
+        store = new TaskStore();
+        changes = new ArrayList<>();
+        store.addListener(changes::add);
+        task1 = new Task("first");
+        task2 = new Task("second");
+    }
+
+    @Test
+    void testAdd() {
+        assertTrue(store.add(task1));
+        assertTrue(store.add(task2));
+        assertFalse(store.add(task1));
+        assertEquals(Arrays.asList(task1, task2), store.snapshot());
+        assertEquals(2, changes.size());
+        assertEquals(TaskStore.Kind.ADDED, changes.get(1).getKind());
+        assertEquals(1, changes.get(1).getIndex());
+        assertEquals(Arrays.asList(task2), changes.get(1).getTasks());
+        assertEquals(Arrays.asList(task1, task2), changes.get(1).getSnapshot());
+    }
+
+    @Test
+    void testAddAll() {
+        assertTrue(store.addAll(Arrays.asList(task1, task2)));
+        assertFalse(store.addAll(Arrays.asList(new Task("third"), task2)));
+        assertEquals(2, store.size());
+        assertEquals(1, changes.size());
+        assertEquals(0, changes.get(0).getIndex());
+        assertThrows(NullArgumentException.class, () -> store.addAll(Arrays.asList(task1, null)));
+    }
+
+    @Test
+    void testSnapshotNeverChanges() {
+        store.add(task1);
+        List<Task> snapshot = store.snapshot();
+        store.add(task2);
+        store.remove(task1);
+        assertEquals(Arrays.asList(task1), snapshot);
+        assertEquals(Arrays.asList(task2), store.snapshot());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(task2));
+    }
+
+    @Test
+    void testRemoveByIdentity() {
+        Task twin = new Task("first");
+        store.addAll(Arrays.asList(task1, twin));
+        assertTrue(store.remove(twin));
+        assertFalse(store.remove(twin));
+        assertEquals(Arrays.asList(task1), store.snapshot());
+        TaskStore.Change removal = changes.get(1);
+        assertEquals(TaskStore.Kind.REMOVED, removal.getKind());
+        assertEquals(1, removal.getIndex());
+        assertSame(twin, removal.getTasks().get(0));
+    }
+
+    @Test
+    void testUpdateNotifiesOnceAfterEveryField() {
+        store.addAll(Arrays.asList(task1, task2));
+        List<String> seen = new ArrayList<>();
+        store.addListener(change -> seen.add(change.getTasks().get(0).getDescription()
+                + " " + change.getTasks().get(0).getProgress()));
+        assertTrue(store.update(task2, task -> {
+            task.setDescription("edited");
+            task.setProgress(50);
+        }));
+        assertEquals(Arrays.asList("edited 50"), seen);
+        assertEquals(1, changes.get(1).getIndex());
+        assertFalse(store.update(new Task("absent"), task -> fail("edited a task not in the store")));
+    }
+
+    @Test
+    void testUpdatePublishesFailedEdit() {
+        store.add(task1);
+        assertThrows(EmptyStringException.class, () -> store.update(task1, task -> {
+            task.setProgress(10);
+            task.setDescription("");
+        }));
+        assertEquals(2, changes.size());
+        assertEquals(TaskStore.Kind.UPDATED, changes.get(1).getKind());
+    }
+
+    @Test
+    void testRemoveDetachesFromTags() {
+        Task tagged = new Task("tagged ## storetag");
+        Tag tag = tagged.getTags().iterator().next();
+        store.addAll(Arrays.asList(tagged, task1));
+        assertTrue(store.remove(tagged));
+        assertFalse(tag.getTasks().contains(tagged));
+        assertTrue(tagged.containsTag(tag));
+        store.add(tagged);
+        assertTrue(tag.getTasks().contains(tagged));
+        store.setAll(Arrays.asList(task1));
+        assertFalse(tag.getTasks().contains(tagged));
+        store.setAll(Arrays.asList(tagged));
+        assertTrue(tag.getTasks().contains(tagged));
+    }
+
+    @Test
+    void testFindsTasksMovedSinceTheyWereAdded() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            tasks.add(new Task("task " + i));
+        }
+        store.addAll(tasks);
+        for (int i = 0; i < 100; i++) {
+            store.remove(tasks.get(i));
+        }
+        store.addAll(0, Arrays.asList(task1, task2));
+        assertTrue(store.update(tasks.get(250), task -> task.setProgress(10)));
+        assertEquals(152, changes.get(changes.size() - 1).getIndex());
+        assertTrue(store.remove(tasks.get(100)));
+        assertEquals(2, changes.get(changes.size() - 1).getIndex());
+        assertFalse(store.remove(tasks.get(0)));
+        assertEquals(201, store.size());
+    }
+
+    @Test
+    void testSetAll() {
+        store.add(task1);
+        store.setAll(Arrays.asList(task2, task1));
+        assertEquals(Arrays.asList(task2, task1), store.snapshot());
+        assertEquals(TaskStore.Kind.RESET, changes.get(1).getKind());
+        assertThrows(IllegalArgumentException.class, () -> store.setAll(Arrays.asList(task1, task1)));
+        assertEquals(Arrays.asList(task2, task1), store.snapshot());
+    }
+
+    @Test
+    void testAddListenerReturnsStartingSnapshot() {
+        store.add(task1);
+        List<Task> copy = new ArrayList<>(store.addListener(change -> { }));
+        assertEquals(Arrays.asList(task1), copy);
+    }
+
+    @Test
+    void testVersionsKeepFrozenTasks() {
+        store.add(task1);
+        TaskStore.Version before = store.version();
+        store.update(task1, task -> task.setDescription("edited"));
+        TaskStore.Version after = store.version();
+        assertEquals(before.getNumber() + 1, after.getNumber());
+        assertSame(task1, before.getTasks().get(0));
+        assertEquals("first", before.getFrozenTasks().get(0).getDescription());
+        assertEquals("edited", after.getFrozenTasks().get(0).getDescription());
+        assertTrue(after.getFrozenTasks().get(0).isFrozen());
+        assertSame(after, changes.get(1).getVersion());
+    }
+
+    @Test
+    void testFrozenTasksIgnoreEditsInPlace() {
+        store.add(task1);
+        task1.setDescription("edited in place");
+        assertEquals("first", store.version().getFrozenTasks().get(0).getDescription());
+        store.updated(task1);
+        assertEquals("edited in place", store.version().getFrozenTasks().get(0).getDescription());
+    }
+
+    @Test
+    void testAddAllAtIndex() {
+        store.addAll(Arrays.asList(task1, task2));
+        Task inserted = new Task("inserted");
+        assertTrue(store.addAll(1, Arrays.asList(inserted)));
+        assertEquals(Arrays.asList(task1, inserted, task2), store.snapshot());
+        assertEquals(1, changes.get(1).getIndex());
+        assertThrows(IndexOutOfBoundsException.class, () -> store.addAll(4, Arrays.asList(new Task("far"))));
+    }
+
+    @Test
+    void testChangesTellWhatTheyReplaced() {
+        store.add(task1);
+        store.update(task1, task -> task.setDescription("edited"));
+        store.remove(task1);
+        assertTrue(changes.get(0).getBefore().isEmpty());
+        assertEquals("first", changes.get(1).getBefore().get(0).getDescription());
+        assertEquals("edited", changes.get(2).getBefore().get(0).getDescription());
+    }
+
+    @Test
+    void testBatch() {
+        store.add(task1);
+        store.batch(() -> {
+            store.add(task2);
+            store.batch(() -> store.remove(task1));
+        });
+        store.updated(task2);
+        assertEquals(changes.get(1).getBatch(), changes.get(2).getBatch());
+        assertNotEquals(changes.get(0).getBatch(), changes.get(1).getBatch());
+        assertNotEquals(changes.get(2).getBatch(), changes.get(3).getBatch());
+    }
+
+    @Test
+    void testConcurrentWritersAndReaders() throws InterruptedException {
+        int writers = 4;
+        int perWriter = 250;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            Thread thread = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < perWriter; i++) {
+                    Task task = new Task("task " + i);
+                    store.add(task);
+                    store.update(task, edited -> edited.setProgress(1));
+                    assertTrue(store.snapshot().size() <= writers * perWriter);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(writers * perWriter, store.size());
+        assertEquals(2 * writers * perWriter, changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            TaskStore.Change change = changes.get(i);
+            if (change.getKind() == TaskStore.Kind.ADDED) {
+                assertEquals(change.getIndex() + 1, change.getSnapshot().size());
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTaskVector {
+    private List<Task> expected;
+    private TaskVector vector;
+
+    @BeforeEach
+    void runBefore() {
+        expected = new ArrayList<>();
+        for (int i = 0; i < 3 * TaskVector.CHUNK + 5; i++) {
+            expected.add(new Task("task " + i));
+        }
+        vector = TaskVector.of(expected.toArray(new Task[0]));
+    }
+
+    @Test
+    void testOf() {
+        assertEquals(expected, vector.tasks());
+        assertEquals(expected, vector.frozenTasks());
+        assertEquals(expected.size(), vector.size());
+        assertEquals(0, TaskVector.EMPTY.size());
+    }
+
+    @Test
+    void testIndexOfFromHint() {
+        int last = expected.size() - 1;
+        assertEquals(70, vector.indexOf(expected.get(70), 70));
+        assertEquals(70, vector.indexOf(expected.get(70), 65));
+        assertEquals(70, vector.indexOf(expected.get(70), 80));
+        assertEquals(0, vector.indexOf(expected.get(0), last + 10));
+        assertEquals(last, vector.indexOf(expected.get(last), -3));
+        assertEquals(-1, vector.indexOf(new Task("absent"), 20));
+        assertEquals(-1, TaskVector.EMPTY.indexOf(expected.get(0), 0));
+    }
+
+    @Test
+    void testAppendAcrossChunks() {
+        TaskVector older = vector;
+        for (int i = 0; i < TaskVector.CHUNK + 3; i++) {
+            Task task = new Task("added " + i);
+            expected.add(task);
+            vector = vector.append(new Task[] {task});
+        }
+        assertEquals(expected, vector.tasks());
+        assertEquals(3 * TaskVector.CHUNK + 5, older.size());
+        assertEquals(expected.size() - 1, vector.indexOf(expected.get(expected.size() - 1)));
+    }
+
+    @Test
+    void testInsert() {
+        Task[] added = new Task[TaskVector.CHUNK + 1];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = new Task("inserted " + i);
+        }
+        TaskVector older = vector;
+        vector = vector.insert(TaskVector.CHUNK + 2, added);
+        expected.addAll(TaskVector.CHUNK + 2, Arrays.asList(added));
+        vector = vector.insert(0, new Task[] {added[0].frozenCopy()});
+        expected.add(0, vector.get(0));
+        assertEquals(expected, vector.tasks());
+        assertEquals(expected, vector.frozenTasks());
+        assertEquals(TaskVector.CHUNK + 3, vector.indexOf(added[0]));
+        assertEquals(3 * TaskVector.CHUNK + 5, older.size());
+    }
+
+    @Test
+    void testRemove() {
+        TaskVector older = vector;
+        vector = vector.remove(TaskVector.CHUNK);
+        expected.remove(TaskVector.CHUNK);
+        vector = vector.remove(0);
+        expected.remove(0);
+        vector = vector.remove(expected.size() - 1);
+        expected.remove(expected.size() - 1);
+        assertEquals(expected, vector.tasks());
+        assertEquals(expected, vector.frozenTasks());
+        assertEquals(3 * TaskVector.CHUNK + 5, older.size());
+        assertEquals(-1, vector.indexOf(older.get(0)));
+    }
+
+    @Test
+    void testRemoveWholeChunk() {
+        TaskVector small = TaskVector.of(expected.subList(0, TaskVector.CHUNK + 1).toArray(new Task[0]));
+        small = small.remove(TaskVector.CHUNK);
+        assertEquals(expected.subList(0, TaskVector.CHUNK), small.tasks());
+        small = small.append(new Task[] {expected.get(TaskVector.CHUNK)});
+        assertEquals(expected.subList(0, TaskVector.CHUNK + 1), small.tasks());
+    }
+
+    @Test
+    void testChunksStayHalfFull() {
+        Random random = new Random(210);
+        for (int round = 0; round < 2000; round++) {
+            if (random.nextBoolean() || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                Task task = new Task("round " + round);
+                vector = vector.insert(index, new Task[] {task});
+                expected.add(index, task);
+            } else {
+                int index = random.nextInt(expected.size());
+                vector = vector.remove(index);
+                expected.remove(index);
+            }
+            assertTrue(vector.chunks() <= expected.size() / (TaskVector.CHUNK / 2) + 1);
+        }
+        assertEquals(expected, vector.tasks());
+        assertEquals(expected, vector.frozenTasks());
+        while (!expected.isEmpty()) {
+            vector = vector.remove(expected.size() / 2);
+            expected.remove(expected.size() / 2);
+            assertTrue(vector.chunks() <= expected.size() / (TaskVector.CHUNK / 2) + 1);
+        }
+        assertEquals(0, vector.chunks());
+        assertEquals(expected, vector.tasks());
+    }
+
+    @Test
+    void testRefreeze() {
+        Task task = expected.get(TaskVector.CHUNK + 1);
+        task.setDescription("edited");
+        TaskVector refrozen = vector.refreeze(TaskVector.CHUNK + 1);
+        assertEquals("task " + (TaskVector.CHUNK + 1), vector.getFrozen(TaskVector.CHUNK + 1).getDescription());
+        assertEquals("edited", refrozen.getFrozen(TaskVector.CHUNK + 1).getDescription());
+        assertSame(vector.getFrozen(0), refrozen.getFrozen(0));
+    }
+
+    @Test
+    void testViewsCannotChange() {
+        assertThrows(UnsupportedOperationException.class, () -> vector.tasks().add(new Task("more")));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.frozenTasks().get(vector.size()));
+    }
+}
@@ -0,0 +1,151 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestUndoHistory {
+    private TaskStore store;
+    private UndoHistory history;
+    private Task task1;
+    private Task task2;
+
+    @BeforeEach
+    void runBefore() {
+        task1 = new Task("first ## cpsc210");
+        task2 = new Task("second");
+        store = new TaskStore(Arrays.asList(task1, task2));
+        history = new UndoHistory(store, UndoHistory.DEFAULT_BUDGET_BYTES);
+    }
+
+    @Test
+    void testNothingToUndo() {
+        assertFalse(history.canUndo());
+        assertFalse(history.undo());
+        assertFalse(history.redo());
+    }
+
+    @Test
+    void testUndoRedoAdd() {
+        Task added = new Task("third");
+        store.add(added);
+        assertTrue(history.undo());
+        assertEquals(Arrays.asList(task1, task2), store.snapshot());
+        assertTrue(history.canRedo());
+        assertTrue(history.redo());
+        assertEquals(Arrays.asList(task1, task2, added), store.snapshot());
+        assertFalse(history.canRedo());
+    }
+
+    @Test
+    void testUndoAddDetachesFromTags() {
+        Task added = new Task("third ## cpsc210");
+        Tag tag = added.getTags().iterator().next();
+        store.add(added);
+        assertTrue(history.undo());
+        assertFalse(tag.getTasks().contains(added));
+        assertTrue(history.redo());
+        assertTrue(tag.getTasks().contains(added));
+    }
+
+    @Test
+    void testUndoDeleteRestoresPositionAndTags() {
+        Tag tag = task1.getTags().iterator().next();
+        store.batch(() -> {
+            store.remove(task1);
+            task1.removeTag(tag);
+        });
+        assertEquals(1, history.getUndoCount());
+        assertTrue(history.undo());
+        assertEquals(Arrays.asList(task1, task2), store.snapshot());
+        assertTrue(task1.containsTag(tag));
+        assertTrue(tag.getTasks().contains(task1));
+        assertTrue(history.redo());
+        assertEquals(Arrays.asList(task2), store.snapshot());
+    }
+
+    @Test
+    void testUndoRedoEdit() {
+        store.update(task2, task -> {
+            task.setDescription("edited");
+            task.setStatus(Status.DONE);
+            task.setProgress(40);
+        });
+        history.undo();
+        assertEquals("second", task2.getDescription());
+        assertEquals(Status.TODO, task2.getStatus());
+        assertEquals(0, task2.getProgress());
+        assertEquals("second", store.version().getFrozenTasks().get(1).getDescription());
+        history.redo();
+        assertEquals("edited", task2.getDescription());
+        assertEquals(Status.DONE, task2.getStatus());
+        assertEquals(40, task2.getProgress());
+    }
+
+    @Test
+    void testBatchUndoneAsOneStep() {
+        List<Task> added = new ArrayList<>();
+        store.batch(() -> {
+            for (int i = 0; i < 1000; i++) {
+                Task task = new Task("bulk " + i);
+                added.add(task);
+                store.add(task);
+                store.update(task, edited -> edited.setProgress(10));
+            }
+        });
+        assertEquals(1, history.getUndoCount());
+        history.undo();
+        assertEquals(2, store.size());
+        history.redo();
+        assertEquals(1002, store.size());
+        assertSame(added.get(999), store.snapshot().get(1001));
+    }
+
+    @Test
+    void testNewChangeClearsRedo() {
+        store.remove(task2);
+        history.undo();
+        store.add(new Task("third"));
+        assertFalse(history.canRedo());
+        assertEquals(1, history.getUndoCount());
+    }
+
+    @Test
+    void testUndoReset() {
+        Task other = new Task("other");
+        store.setAll(Arrays.asList(other));
+        history.undo();
+        assertEquals(Arrays.asList(task1, task2), store.snapshot());
+    }
+
+    @Test
+    void testBudgetForgetsOldestSteps() {
+        long stepBytes = UndoHistory.ENTRY_BYTES + 2 * UndoHistory.REFERENCE_BYTES + UndoHistory.TASK_BYTES;
+        history = new UndoHistory(store, 3 * stepBytes);
+        for (int i = 0; i < 10; i++) {
+            store.updated(task1);
+        }
+        assertEquals(3, history.getUndoCount());
+        assertTrue(history.getBytes() <= 3 * stepBytes);
+        history.clear();
+        assertEquals(0, history.getBytes());
+    }
+
+    @Test
+    void testBatchOverBudgetIsForgotten() {
+        history = new UndoHistory(store, UndoHistory.TASK_BYTES);
+        store.batch(() -> {
+            store.updated(task1);
+            store.updated(task2);
+            store.updated(task1);
+        });
+        assertFalse(history.canUndo());
+        store.add(new Task("third"));
+        assertEquals(1, history.getUndoCount());
+    }
+}
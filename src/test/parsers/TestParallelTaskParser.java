@@ -0,0 +1,98 @@
+package parsers;
+
+import model.Tag;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestParallelTaskParser {
+    private static final String TASK1 = "{\"due-date\":null,\"description\":\"Download [all], {the} \\\"files\\\"\","
+            + "\"priority\":{\"important\":false,\"urgent\":true},\"tags\":[],\"status\":\"TODO\"}";
+    private static final String TASK2 = "{\"due-date\":{\"month\":1,\"hour\":17,\"year\":2019,\"day\":22,\"minute\":10},"
+            + "\"description\":\"Make note of quizzes\",\"priority\":{\"important\":true,\"urgent\":false},"
+            + "\"tags\":[{\"name\":\"exams\"},{\"name\":\"cpsc210\"}],\"status\":\"IN_PROGRESS\"}";
+    private static final String BAD_STATUS = TASK2.replace("\"IN_PROGRESS\"", "\"SOMEDAY\"");
+    private ForkJoinPool pool;
+    private ParallelTaskParser parser;
+
+    @BeforeEach
+    void runBefore() {
+        pool = new ForkJoinPool(4);
+        parser = new ParallelTaskParser(pool, 100);
+    }
+
+    @AfterEach
+    void runAfter() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testParseMatchesSequentialParse() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            json.append(i == 0 ? "" : ",\n").append(i % 7 == 0 ? BAD_STATUS : (i % 2 == 0 ? TASK1 : TASK2));
+            json.append(i % 50 == 0 ? ", 42" : "");
+        }
+        json.append("]");
+        List<Task> expected = new TaskParser().parse(json.toString());
+        List<Task> tasks = parser.parse(bytes(json.toString()));
+
+        assertEquals(expected.size(), tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(expected.get(i), tasks.get(i));
+            assertEquals(expected.get(i).getTags(), tasks.get(i).getTags());
+            for (Tag tag : tasks.get(i).getTags()) {
+                assertTrue(tag.containsTask(tasks.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void testParseDeliversChunksInOrder() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 40; i++) {
+            json.append(i == 0 ? "" : ",").append(TASK2.replace("Make note of quizzes", "Task " + i));
+        }
+        json.append("]");
+        List<List<Task>> batches = new ArrayList<>();
+        parser.parse(bytes(json.toString()), batches::add);
+
+        assertTrue(batches.size() > 1);
+        int next = 0;
+        for (List<Task> batch : batches) {
+            for (Task task : batch) {
+                assertEquals("Task " + next++, task.getDescription());
+                assertTrue(task.containsTag("exams"));
+            }
+        }
+        assertEquals(40, next);
+    }
+
+    @Test
+    void testParseNotAnArray() {
+        assertEquals(0, parser.parse(bytes("")).size());
+        assertEquals(0, parser.parse(bytes("  {}")).size());
+        assertEquals(0, parser.parse(bytes("[ ]")).size());
+    }
+
+    @Test
+    void testParseUnbalancedFallsBackToSequential() {
+        List<Task> tasks = parser.parse(bytes("[" + TASK1 + "," + TASK2 + ", {\"unterminated"));
+        assertEquals(2, tasks.size());
+        assertEquals("Make note of quizzes", tasks.get(1).getDescription());
+        assertTrue(tasks.get(1).containsTag("exams"));
+    }
+
+    // EFFECTS: returns json encoded in UTF-8
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
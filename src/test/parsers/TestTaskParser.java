@@ -0,0 +1,91 @@
+package parsers;
+
+import model.Priority;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.Jsonifier;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTaskParser {
+    private static final String TASK1 = "{\"due-date\":null,\"description\":\"Download\","
+            + "\"priority\":{\"important\":false,\"urgent\":true},\"tags\":[],\"status\":\"TODO\"}";
+    private static final String TASK2 = "{\"due-date\":{\"month\":1,\"hour\":17,\"year\":2019,\"day\":22,\"minute\":10},"
+            + "\"description\":\"Make note of quizzes\",\"priority\":{\"important\":true,\"urgent\":false},"
+            + "\"tags\":[{\"name\":\"exams\"},{\"name\":\"cpsc210\"}],\"status\":\"IN_PROGRESS\"}";
+    private TaskParser parser;
+
+    @BeforeEach
+    void runBefore() {
+        parser = new TaskParser();
+    }
+
+    @Test
+    void testParseEmpty() {
+        assertEquals(0, parser.parse("").size());
+        assertEquals(0, parser.parse("[]").size());
+        assertEquals(0, parser.parse("{}").size());
+    }
+
+    @Test
+    void testParseWellFormed() {
+        List<Task> tasks = parser.parse("[" + TASK1 + ",\n  " + TASK2 + "]");
+        assertEquals(2, tasks.size());
+
+        assertEquals("Download", tasks.get(0).getDescription());
+        assertEquals(new Priority(3), tasks.get(0).getPriority());
+        assertNull(tasks.get(0).getDueDate());
+        assertEquals(0, tasks.get(0).getTags().size());
+
+        Task task = tasks.get(1);
+        assertEquals("Make note of quizzes", task.getDescription());
+        assertEquals(new Priority(2), task.getPriority());
+        assertEquals(Status.IN_PROGRESS, task.getStatus());
+        assertTrue(task.containsTag("exams"));
+        assertTrue(task.containsTag("cpsc210"));
+        assertNotNull(task.getDueDate());
+    }
+
+    @Test
+    void testParseSkipsMalformedTasks() {
+        String badStatus = TASK1.replace("\"TODO\"", "\"SOMEDAY\"");
+        String badPriority = TASK1.replace("\"urgent\":true", "\"urgent\":\"yes\"");
+        String missingTags = TASK1.replace("\"tags\":[],", "");
+        String badTag = TASK1.replace("\"tags\":[]", "\"tags\":[{\"name\":5}]");
+        String badDate = TASK2.replace("\"day\":22", "\"day\":\"22\"");
+        List<Task> tasks = parser.parse("[" + badStatus + "," + TASK2 + "," + badPriority + ",42,"
+                + missingTags + "," + badTag + "," + badDate + "," + TASK1 + "]");
+
+        assertEquals(2, tasks.size());
+        assertEquals("Make note of quizzes", tasks.get(0).getDescription());
+        assertEquals("Download", tasks.get(1).getDescription());
+    }
+
+    @Test
+    void testParseRoundTrip() {
+        Task task = new Task("Say \"hi\" to\\the team ## cpsc210; important");
+        List<Task> original = new ArrayList<>();
+        original.add(task);
+
+        List<Task> tasks = parser.parse(Jsonifier.taskListToJson(original).toString());
+        assertEquals(1, tasks.size());
+        assertEquals(task, tasks.get(0));
+        assertTrue(tasks.get(0).containsTag("cpsc210"));
+    }
+
+    @Test
+    void testTaskReaderIsLazy() {
+        TaskReader reader = new TaskReader(new StringReader("[" + TASK1 + "," + TASK2 + ", {\"unterminated"));
+        assertTrue(reader.hasNext());
+        assertEquals("Download", reader.next().getDescription());
+        assertTrue(reader.hasNext());
+        assertEquals("Make note of quizzes", reader.next().getDescription());
+        assertFalse(reader.hasNext());
+    }
+}
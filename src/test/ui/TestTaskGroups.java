@@ -0,0 +1,71 @@
+package ui;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.Priority;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTaskGroups {
+    private ObservableList<Task> tasks;
+    private Task task1;
+    private Task task2;
+    private Task task3;
+
+    @BeforeEach
+    void runBefore() {
+        task1 = new Task("read notes ## in progress; important");
+        task2 = new Task("write report ## urgent");
+        task3 = new Task("email report ## in progress; important; urgent");
+        tasks = FXCollections.observableArrayList(task1, task2, task3);
+    }
+
+    @Test
+    void testGroupsFollowList() {
+        TaskGroups groups = TaskGroups.byStatus(tasks);
+        assertEquals(4, groups.getGroupCount());
+        assertEquals(Arrays.asList(task2), groups.getGroup(Status.TODO.ordinal()));
+        assertEquals(Arrays.asList(task1, task3), groups.getGroup(Status.IN_PROGRESS.ordinal()));
+        Task task4 = new Task("plan meeting");
+        tasks.add(task4);
+        tasks.remove(task1);
+        assertEquals(Arrays.asList(task2, task4), groups.getGroup(Status.TODO.ordinal()));
+        assertEquals(Arrays.asList(task3), groups.getGroup(Status.IN_PROGRESS.ordinal()));
+        task1.setStatus(Status.DONE);
+        assertTrue(groups.getGroup(Status.DONE.ordinal()).isEmpty());
+    }
+
+    @Test
+    void testTaskMovesWhenItsFieldChanges() {
+        TaskGroups groups = TaskGroups.byPriority(tasks);
+        assertEquals(Arrays.asList(task3), groups.getGroup(0));
+        assertEquals(Arrays.asList(task1), groups.getGroup(1));
+        assertEquals(Arrays.asList(task2), groups.getGroup(2));
+        task2.setPriority(new Priority(1));
+        assertEquals(Arrays.asList(task3, task2), groups.getGroup(0));
+        assertTrue(groups.getGroup(2).isEmpty());
+        task2.setStatus(Status.DONE);
+        assertEquals(Arrays.asList(task3, task2), groups.getGroup(0));
+    }
+
+    @Test
+    void testTaskSetAgainKeepsItsPlace() {
+        TaskGroups groups = TaskGroups.byStatus(tasks);
+        tasks.set(0, task1);
+        assertEquals(Arrays.asList(task1, task3), groups.getGroup(Status.IN_PROGRESS.ordinal()));
+        task1.getPriority().setUrgent(true);
+        tasks.set(0, task1);
+        assertEquals(Arrays.asList(task1, task3), groups.getGroup(Status.IN_PROGRESS.ordinal()));
+        TaskGroups byPriority = TaskGroups.byPriority(tasks);
+        task3.getPriority().setImportant(false);
+        tasks.set(2, task3);
+        assertEquals(Arrays.asList(task1), byPriority.getGroup(0));
+        assertEquals(Arrays.asList(task2, task3), byPriority.getGroup(2));
+    }
+}
@@ -0,0 +1,163 @@
+package utility;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.*;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestBinaryTaskFile {
+    private File file;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = File.createTempFile("tasks", ".bin");
+        Task dated = new Task("Caf\u00e9 au lait \u2615 \u65e5\u672c\u8a9e");
+        dated.setDueDate(new DueDate(new Date(1500000000000L)));
+        dated.setPriority(new Priority(1));
+        dated.setStatus(Status.IN_PROGRESS);
+        dated.addTag("cpsc210");
+        dated.addTag("\u00e9tiquette");
+        Task undated = new Task("Same description");
+        undated.setDueDate(null);
+        undated.addTag("cpsc210");
+        Task twin = new Task("Same description");
+        twin.setDueDate(null);
+        twin.setStatus(Status.DONE);
+        tasks = Arrays.asList(dated, undated, twin);
+    }
+
+    @AfterEach
+    void runAfter() {
+        file.delete();
+    }
+
+    @Test
+    void testWriteThenRead() throws IOException {
+        long checksum = BinaryTaskFile.write(file, tasks);
+        CRC32 read = new CRC32();
+        List<Task> copies = BinaryTaskFile.read(file, read);
+        assertEquals(checksum, read.getValue());
+        assertEquals(tasks.size(), copies.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertSameTask(tasks.get(i), copies.get(i));
+        }
+        // Note: DueDate keeps the milliseconds of the current time, so dates only match to the second
+        assertEquals(tasks.get(0).getDueDate().getDate().getTime() / 1000,
+                copies.get(0).getDueDate().getDate().getTime() / 1000);
+        assertNull(copies.get(1).getDueDate());
+    }
+
+    @Test
+    void testWriteThenReadEmpty() throws IOException {
+        BinaryTaskFile.write(file, Collections.emptyList());
+        assertEquals(BinaryTaskFile.HEADER_SIZE + 4, file.length());
+        assertTrue(BinaryTaskFile.read(file, null).isEmpty());
+    }
+
+    @Test
+    void testEqualStringsAreStoredOnce() throws IOException {
+        BinaryTaskFile.write(file, tasks);
+        long shared = file.length();
+        Task other = new Task("Another description");
+        other.addTag("another tag");
+        BinaryTaskFile.write(file, Arrays.asList(tasks.get(0), tasks.get(1), other));
+        assertTrue(file.length() > shared);
+    }
+
+    @Test
+    void testReadTruncatedFile() throws IOException {
+        BinaryTaskFile.write(file, tasks);
+        long length = file.length();
+        truncate(length - 3);
+        assertThrows(IOException.class, () -> BinaryTaskFile.read(file, null));
+        truncate(BinaryTaskFile.HEADER_SIZE + 5);
+        assertThrows(IOException.class, () -> BinaryTaskFile.read(file, null));
+        truncate(3);
+        assertThrows(IOException.class, () -> BinaryTaskFile.read(file, null));
+    }
+
+    @Test
+    void testReadBadMagicOrVersion() throws IOException {
+        BinaryTaskFile.write(file, tasks);
+        patchShort(4, BinaryTaskFile.VERSION + 1);
+        IOException e = assertThrows(IOException.class, () -> BinaryTaskFile.read(file, null));
+        assertTrue(e.getMessage().contains("version"));
+        patchInt(0, 0x7B0A2020);
+        e = assertThrows(IOException.class, () -> BinaryTaskFile.read(file, null));
+        assertTrue(e.getMessage().contains("Not a binary task file"));
+    }
+
+    @Test
+    void testReadCorruptOffsets() throws IOException {
+        BinaryTaskFile.write(file, tasks);
+        int tagRefs = 3;
+        int stringTable = BinaryTaskFile.HEADER_SIZE + tasks.size() * BinaryTaskFile.RECORD_SIZE + tagRefs * 4;
+        patchInt(stringTable + 4, -1);
+        assertThrows(IOException.class, () -> BinaryTaskFile.read(file, null));
+        BinaryTaskFile.write(file, tasks);
+        patchInt(BinaryTaskFile.HEADER_SIZE, 1000);
+        assertThrows(IOException.class, () -> BinaryTaskFile.read(file, null));
+        BinaryTaskFile.write(file, tasks);
+        patchInt(8, -2);
+        assertThrows(IOException.class, () -> BinaryTaskFile.read(file, null));
+    }
+
+    @Test
+    void testConverterRoundTrip() throws IOException {
+        File json = File.createTempFile("tasks", ".json");
+        File binary = File.createTempFile("copy", ".bin");
+        try {
+            BinaryTaskFile.write(file, tasks);
+            TaskFileConverter.binaryToJson(file, json);
+            TaskFileConverter.jsonToBinary(json, binary);
+            List<Task> copies = BinaryTaskFile.read(binary, null);
+            assertEquals(tasks.size(), copies.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                assertSameTask(tasks.get(i), copies.get(i));
+            }
+        } finally {
+            json.delete();
+            binary.delete();
+        }
+    }
+
+    private static void assertSameTask(Task expected, Task actual) {
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getTags(), actual.getTags());
+    }
+
+    private void truncate(long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+    }
+
+    private void patchInt(long offset, int value) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(offset);
+            raf.writeInt(value);
+        }
+    }
+
+    private void patchShort(long offset, int value) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(offset);
+            raf.writeShort(value);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Note: jdk.jfr is not in the Java 8 API, so the recording is driven reflectively, and only on runtimes that
+//       have it
+class TestFlightEvents {
+    @Test
+    void testEventIsNoOpWhenNotRecorded() {
+        FlightEvents.begin(FlightEvents.Type.TASK_SAVE).commit(3, 100L);
+        FlightEvents.begin(FlightEvents.Type.SCENE_CHANGE).commit("ListView");
+    }
+
+    @Test
+    void testIsEnabledWhenNotRecorded() {
+        assertFalse(FlightEvents.isEnabled(FlightEvents.Type.PROJECT_UPDATE));
+        assertFalse(FlightEvents.isEnabled(FlightEvents.Type.PROJECT_UPDATE));
+    }
+
+    @Test
+    void testEventIsRecorded() throws Exception {
+        if (!FlightEvents.isAvailable()) {
+            return;
+        }
+        Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+        Object recording = recordingClass.getConstructor().newInstance();
+        recordingClass.getMethod("enable", String.class).invoke(recording, "pomotodo.TaskSave");
+        recordingClass.getMethod("start").invoke(recording);
+        FlightEvents.begin(FlightEvents.Type.TASK_SAVE).commit(3, 100L);
+        recordingClass.getMethod("stop").invoke(recording);
+        File file = File.createTempFile("events", ".jfr");
+        try {
+            recordingClass.getMethod("dump", Path.class).invoke(recording, file.toPath());
+            List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+                    .getMethod("readAllEvents", Path.class).invoke(null, file.toPath());
+            assertEquals(1, events.size());
+            Method getInt = Class.forName("jdk.jfr.consumer.RecordedObject").getMethod("getInt", String.class);
+            Method getLong = Class.forName("jdk.jfr.consumer.RecordedObject").getMethod("getLong", String.class);
+            assertEquals(3, getInt.invoke(events.get(0), "tasks"));
+            assertEquals(100L, getLong.invoke(events.get(0), "bytes"));
+        } finally {
+            recordingClass.getMethod("close").invoke(recording);
+            file.delete();
+        }
+    }
+}
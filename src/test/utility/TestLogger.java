@@ -0,0 +1,100 @@
+package utility;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLogger {
+    private File file;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = File.createTempFile("pomotodo", ".log");
+        Logger.setConsole(false);
+        Logger.setFile(file, 1 << 20, 2);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Logger.setFile(null, 0, 0);
+        Logger.setConsole(true);
+        Logger.setLevel(Logger.Level.INFO);
+        file.delete();
+        new File(file.getPath() + ".1").delete();
+        new File(file.getPath() + ".2").delete();
+    }
+
+    @Test
+    void testMessagesAreFormattedAndWritten() throws IOException {
+        Logger.log("TestLogger", "plain message");
+        Logger.warn("TestLogger", "%d of %s", 3, "tasks");
+        Logger.error("TestLogger", "bad format %d", "text");
+        assertTrue(Logger.flush(5000));
+        List<String> lines = lines(file);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).endsWith("INFO  TestLogger : plain message"));
+        assertTrue(lines.get(1).endsWith("WARN  TestLogger : 3 of tasks"));
+        assertTrue(lines.get(2).endsWith("ERROR TestLogger : bad format %d [text]"));
+    }
+
+    @Test
+    void testDisabledLevelsAreDropped() throws IOException {
+        assertFalse(Logger.isEnabled(Logger.Level.DEBUG));
+        Logger.debug("TestLogger", "hidden %s", "message");
+        Logger.setLevel(Logger.Level.DEBUG);
+        Logger.debug("TestLogger", "shown %s", "message");
+        Logger.setLevel(Logger.Level.ERROR);
+        Logger.warn("TestLogger", "hidden");
+        assertTrue(Logger.flush(5000));
+        List<String> lines = lines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("shown message"));
+    }
+
+    @Test
+    void testFullBufferDropsMessages() {
+        long dropped = Logger.getDroppedCount();
+        for (int i = 0; i < 4 * Logger.CAPACITY; i++) {
+            Logger.info("TestLogger", "message %d", i);
+        }
+        assertTrue(Logger.flush(5000));
+        assertEquals(4 * Logger.CAPACITY, Logger.getDroppedCount() - dropped + linesWritten());
+    }
+
+    @Test
+    void testFileIsRolledOver() throws IOException {
+        Logger.setFile(file, 100, 2);
+        for (int i = 0; i < 10; i++) {
+            Logger.log("TestLogger", "message number " + i);
+        }
+        assertTrue(Logger.flush(5000));
+        assertTrue(file.length() <= 100);
+        assertTrue(new File(file.getPath() + ".1").exists());
+        assertTrue(new File(file.getPath() + ".2").exists());
+        assertFalse(new File(file.getPath() + ".3").exists());
+        List<String> lines = lines(file);
+        assertTrue(lines.get(lines.size() - 1).endsWith("message number 9"));
+    }
+
+    // EFFECTS: returns the number of lines in the log file
+    private int linesWritten() {
+        try {
+            return lines(file).size();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // EFFECTS: returns the lines of logFile
+    private static List<String> lines(File logFile) throws IOException {
+        return Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+package utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestMetrics {
+    @Test
+    void testCounter() {
+        Metrics.Counter counter = Metrics.counter("test.counter");
+        long before = counter.get();
+        counter.increment();
+        counter.add(4);
+        assertSame(counter, Metrics.counter("test.counter"));
+        assertEquals(before + 5, counter.get());
+        assertThrows(IllegalArgumentException.class, () -> Metrics.histogram("test.counter"));
+        assertThrows(IllegalArgumentException.class, () -> Metrics.gauge("test.counter", () -> 1));
+    }
+
+    @Test
+    void testHistogramBuckets() {
+        for (long value = 0; value < 100000; value += 7) {
+            int bucket = Metrics.Histogram.bucketOf(value);
+            assertTrue(Metrics.Histogram.lowerBoundOf(bucket) <= value);
+            assertTrue(value < Metrics.Histogram.lowerBoundOf(bucket + 1));
+        }
+        assertEquals(15L << 59, Metrics.Histogram.lowerBoundOf(Metrics.Histogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        Metrics.Histogram histogram = new Metrics.Histogram();
+        assertEquals(0, histogram.getPercentile(99));
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500, histogram.getMean(), 1e-6);
+        assertEquals(1000000, histogram.getMax());
+        assertEquals(500000, histogram.getPercentile(50), 500000 / 8);
+        assertEquals(990000, histogram.getPercentile(99), 990000 / 8);
+        assertEquals(1000000, histogram.getPercentile(100));
+    }
+
+    @Test
+    void testSnapshotAndExport() throws IOException {
+        Metrics.gauge("test.gauge", () -> 42);
+        Metrics.histogram("test.histogram").record(2000000);
+        String snapshot = Metrics.snapshot();
+        assertTrue(snapshot.contains("test.gauge"));
+        assertTrue(snapshot.contains("value=42"));
+        assertTrue(snapshot.contains("p99=2.0"));
+        File file = File.createTempFile("metrics", ".log");
+        try {
+            Metrics.export(file);
+            Metrics.export(file);
+            String exported = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            assertEquals(2, exported.split("value=42").length - 1);
+        } finally {
+            file.delete();
+        }
+    }
+}
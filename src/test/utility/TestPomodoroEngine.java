@@ -0,0 +1,192 @@
+package utility;
+
+import model.Task;
+import model.TaskStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestPomodoroEngine {
+    private static final long MINUTE = 60 * 1000;
+    private File file;
+    private SessionLog log;
+    private List<String> events;
+    private CountDownLatch breakEnded;
+    private PomodoroEngine engine;
+    private Task task;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = File.createTempFile("sessions", ".log");
+        log = new SessionLog(file);
+        events = new CopyOnWriteArrayList<>();
+        breakEnded = new CountDownLatch(1);
+        engine = new PomodoroEngine(new PomodoroEngine.Listener() {
+            @Override
+            public void ticked(PomodoroEngine.Pomodoro pomodoro) {
+            }
+
+            @Override
+            public void phaseEnded(PomodoroEngine.Pomodoro pomodoro, PomodoroEngine.Phase phase,
+                                   boolean completed) {
+                events.add(phase + (completed ? " ended" : " stopped"));
+                if (phase != PomodoroEngine.Phase.WORK) {
+                    breakEnded.countDown();
+                }
+            }
+
+            @Override
+            public void creditWork(Task task, Consumer<Task> credit) {
+                credit.accept(task);
+                events.add("credited");
+            }
+        }, Runnable::run, log, 200, 100, 300);
+        task = new Task("essay");
+    }
+
+    @AfterEach
+    void runAfter() throws Exception {
+        engine.shutdown(1000);
+        log.close();
+        file.delete();
+    }
+
+    @Test
+    void testPomodoroRunsWorkThenBreak() throws Exception {
+        PomodoroEngine.Pomodoro pomodoro = engine.start(task);
+        assertSame(pomodoro, engine.start(task));
+        assertEquals(PomodoroEngine.Phase.WORK, pomodoro.getPhase());
+        assertTrue(pomodoro.getRemainingMillis() <= 200);
+        assertEquals(1, engine.getRunningCount());
+        assertTrue(breakEnded.await(5, TimeUnit.SECONDS));
+        assertEquals(0, engine.getRunningCount());
+        assertNull(engine.get(task));
+        assertNull(pomodoro.getPhase());
+        assertTrue(events.contains("WORK ended"));
+        assertTrue(events.contains("SHORT_BREAK ended"));
+        assertTrue(events.contains("credited"));
+        engine.shutdown(1000);
+        assertEquals(2, sessions().size());
+        assertTrue(sessions().get(0).contains("\"phase\":\"WORK\""));
+    }
+
+    @Test
+    void testStopEndsPomodoroEarly() throws Exception {
+        engine.start(task);
+        Task other = new Task("report");
+        engine.start(other);
+        assertEquals(2, engine.getRunningCount());
+        engine.stop(task);
+        engine.stop(task);
+        assertEquals(1, engine.getRunningCount());
+        assertNull(engine.get(task));
+        assertNotNull(engine.get(other));
+        assertEquals("WORK stopped", events.get(0));
+        assertEquals("credited", events.get(1));
+        engine.shutdown(1000);
+        assertEquals(2, sessions().size());
+        assertTrue(sessions().get(0).contains("\"completed\":false"));
+    }
+
+    @Test
+    void testShutdownCreditsOnCallingThread() throws Exception {
+        List<Runnable> neverRun = new CopyOnWriteArrayList<>();
+        List<Thread> creditedOn = new CopyOnWriteArrayList<>();
+        PomodoroEngine busy = new PomodoroEngine(new PomodoroEngine.Listener() {
+            @Override
+            public void ticked(PomodoroEngine.Pomodoro pomodoro) {
+            }
+
+            @Override
+            public void phaseEnded(PomodoroEngine.Pomodoro pomodoro, PomodoroEngine.Phase phase,
+                                   boolean completed) {
+            }
+
+            @Override
+            public void creditWork(Task task, Consumer<Task> credit) {
+                credit.accept(task);
+                creditedOn.add(Thread.currentThread());
+            }
+        }, neverRun::add, log, MINUTE, MINUTE, MINUTE);
+        busy.start(task);
+        Thread.sleep(50);
+        busy.shutdown(1000);
+        assertTrue(neverRun.isEmpty());
+        assertEquals(1, creditedOn.size());
+        assertSame(Thread.currentThread(), creditedOn.get(0));
+        assertEquals(1, sessions().size());
+    }
+
+    @Test
+    void testCreditIsAnUpdateOfTheStore() throws Exception {
+        TaskStore store = new TaskStore(Collections.singletonList(task));
+        List<TaskStore.Change> changes = new CopyOnWriteArrayList<>();
+        store.addListener(changes::add);
+        PomodoroEngine stored = new PomodoroEngine(new PomodoroEngine.Listener() {
+            @Override
+            public void ticked(PomodoroEngine.Pomodoro pomodoro) {
+            }
+
+            @Override
+            public void phaseEnded(PomodoroEngine.Pomodoro pomodoro, PomodoroEngine.Phase phase,
+                                   boolean completed) {
+            }
+
+            @Override
+            public void creditWork(Task task, Consumer<Task> credit) {
+                store.update(task, credit);
+            }
+        }, Runnable::run, log, MINUTE, MINUTE, MINUTE);
+        stored.start(task);
+        stored.stop(task);
+        assertEquals(1, changes.size());
+        assertEquals(TaskStore.Kind.UPDATED, changes.get(0).getKind());
+        assertSame(task, changes.get(0).getTasks().get(0));
+        store.remove(task);
+        stored.start(task);
+        stored.stop(task);
+        assertEquals(2, changes.size());
+        stored.shutdown(1000);
+    }
+
+    @Test
+    void testSessionsAreAppended() throws Exception {
+        log.append(task, PomodoroEngine.Phase.WORK, 0, 1, true);
+        log.close();
+        log.append(task, PomodoroEngine.Phase.LONG_BREAK, 1, 2, true);
+        assertEquals(2, sessions().size());
+        assertTrue(sessions().get(1).contains("\"phase\":\"LONG_BREAK\""));
+    }
+
+    @Test
+    void testCreditCarriesPartHours() {
+        task.setEstimatedTimeToComplete(2);
+        engine.credit(task, 30 * MINUTE);
+        assertEquals(25, task.getProgress());
+        assertEquals(2, task.getEstimatedTimeToComplete());
+        engine.credit(task, 30 * MINUTE);
+        assertEquals(50, task.getProgress());
+        assertEquals(1, task.getEstimatedTimeToComplete());
+        engine.credit(task, 90 * MINUTE);
+        assertEquals(100, task.getProgress());
+        assertEquals(0, task.getEstimatedTimeToComplete());
+    }
+
+    // EFFECTS: returns the lines of the session log
+    private List<String> sessions() throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+package utility;
+
+import model.DueDate;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestReminderService {
+    private static final long MINUTE = 60 * 1000;
+    private static final long HOUR = 60 * MINUTE;
+    private long now;
+    private ReminderService reminders;
+    private List<String> fired;
+    private Task task;
+
+    @BeforeEach
+    void runBefore() {
+        now = System.currentTimeMillis() / MINUTE * MINUTE;
+        fired = new ArrayList<>();
+        reminders = new ReminderService(new ReminderService.Listener() {
+            @Override
+            public void taskDueSoon(Task task) {
+                fired.add("soon " + task.getDescription());
+            }
+
+            @Override
+            public void taskOverdue(Task task) {
+                fired.add("overdue " + task.getDescription());
+            }
+        }, HOUR, now);
+        task = new Task("essay");
+    }
+
+    @Test
+    void testDueSoonThenOverdue() {
+        task.setDueDate(new DueDate(new Date(now + 3 * HOUR)));
+        reminders.add(task);
+        assertEquals(1, reminders.getPendingCount());
+        reminders.advanceTo(now + 2 * HOUR - MINUTE);
+        assertEquals(Arrays.asList(), fired);
+        reminders.advanceTo(now + 2 * HOUR + MINUTE);
+        assertEquals(Arrays.asList("soon essay"), fired);
+        assertEquals(0, reminders.getOverdueCount());
+        reminders.advanceTo(now + 3 * HOUR + MINUTE);
+        assertEquals(Arrays.asList("soon essay", "overdue essay"), fired);
+        assertEquals(1, reminders.getOverdueCount());
+        assertEquals(0, reminders.getPendingCount());
+    }
+
+    @Test
+    void testAlreadyOverdueIsCountedNotReported() {
+        task.setDueDate(new DueDate(new Date(now - HOUR)));
+        reminders.add(task);
+        reminders.add(new Task("no due date"));
+        reminders.advanceTo(now + HOUR);
+        assertEquals(Arrays.asList(), fired);
+        assertEquals(1, reminders.getOverdueCount());
+        task.setStatus(Status.DONE);
+        assertEquals(0, reminders.getOverdueCount());
+    }
+
+    @Test
+    void testReschedulesOnDueDateChange() {
+        task.setDueDate(new DueDate(new Date(now + 30 * MINUTE)));
+        reminders.add(task);
+        task.setDueDate(new DueDate(new Date(now + 5 * HOUR)));
+        reminders.advanceTo(now + HOUR);
+        assertEquals(Arrays.asList(), fired);
+        task.setDueDate(null);
+        assertEquals(0, reminders.getPendingCount());
+        reminders.advanceTo(now + 6 * HOUR);
+        assertEquals(Arrays.asList(), fired);
+    }
+
+    @Test
+    void testRemove() {
+        task.setDueDate(new DueDate(new Date(now - HOUR)));
+        reminders.add(task);
+        reminders.remove(task);
+        assertEquals(0, reminders.getOverdueCount());
+        task.setDueDate(new DueDate(new Date(now + HOUR)));
+        assertEquals(0, reminders.getPendingCount());
+    }
+}
@@ -0,0 +1,60 @@
+package utility;
+
+import model.SearchIndex;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSearchIndexFile {
+    private File file;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = File.createTempFile("tasks", ".idx");
+        tasks = Arrays.asList(new Task("Read chapter 5"), new Task("Write the report ## cpsc210"),
+                new Task("Read the report"));
+    }
+
+    @AfterEach
+    void runAfter() {
+        file.delete();
+    }
+
+    @Test
+    void testWriteThenRead() throws IOException {
+        SearchIndexFile.write(file, 42, tasks);
+        SearchIndex index = SearchIndexFile.read(file, 42, tasks);
+        assertEquals(3, index.size());
+        assertEquals(Arrays.asList(tasks.get(2)), index.search("read rep"));
+        assertEquals(2, index.search("report").size());
+        tasks.get(0).setDescription("Skim chapter 5");
+        assertEquals(Arrays.asList(tasks.get(0)), index.search("skim"));
+    }
+
+    @Test
+    void testReadIgnoresIndexOfOtherSnapshot() throws IOException {
+        SearchIndexFile.write(file, 42, tasks);
+        assertNull(SearchIndexFile.read(file, 7, tasks));
+        assertNull(SearchIndexFile.read(file, 42, tasks.subList(0, 2)));
+    }
+
+    @Test
+    void testReadIgnoresMissingOrDamagedFile() throws IOException {
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("not an index");
+        }
+        assertNull(SearchIndexFile.read(file, 42, tasks));
+        file.delete();
+        assertNull(SearchIndexFile.read(file, 42, tasks));
+    }
+}
@@ -0,0 +1,107 @@
+package utility;
+
+import model.Tag;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTaskJournal {
+    private File file;
+    private TaskJournal journal;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = File.createTempFile("tasks", ".journal");
+        journal = new TaskJournal(file);
+        journal.reset(42);
+        tasks = new ArrayList<>();
+        tasks.add(new Task("first"));
+        tasks.add(new Task("second"));
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        journal.close();
+        file.delete();
+    }
+
+    @Test
+    void testReplayAppliesRecordsInOrder() throws IOException {
+        journal.append(TaskJournal.record(TaskJournal.Operation.ADD, 2, new Task("third ## cpsc210")));
+        journal.append(TaskJournal.record(TaskJournal.Operation.REMOVE, 0, null));
+        journal.append(TaskJournal.record(TaskJournal.Operation.UPDATE, 0, new Task("second, edited")));
+        assertEquals(3, journal.getRecordCount());
+        journal.close();
+
+        assertEquals(3, journal.replay(tasks, 42));
+        assertFalse(journal.isDamaged());
+        assertEquals(2, tasks.size());
+        assertEquals("second, edited", tasks.get(0).getDescription());
+        assertEquals("third ", tasks.get(1).getDescription());
+        assertTrue(tasks.get(1).containsTag("cpsc210"));
+        assertEquals(3, journal.getRecordCount());
+    }
+
+    @Test
+    void testReplayDetachesRemovedAndReplacedTasks() throws IOException {
+        Task removed = new Task("removed ## journaltag");
+        Task replaced = new Task("replaced ## journaltag");
+        Tag tag = removed.getTags().iterator().next();
+        tasks.add(removed);
+        tasks.add(replaced);
+        journal.append(TaskJournal.record(TaskJournal.Operation.REMOVE, 2, null));
+        journal.append(TaskJournal.record(TaskJournal.Operation.UPDATE, 2, new Task("replaced, edited")));
+        journal.close();
+
+        assertEquals(2, journal.replay(tasks, 42));
+        assertEquals(3, tasks.size());
+        assertFalse(tag.getTasks().contains(removed));
+        assertFalse(tag.getTasks().contains(replaced));
+    }
+
+    @Test
+    void testReplayIgnoresJournalOfOtherSnapshot() throws IOException {
+        journal.append(TaskJournal.record(TaskJournal.Operation.REMOVE, 0, null));
+        journal.close();
+
+        assertEquals(0, journal.replay(tasks, 7));
+        assertEquals(2, tasks.size());
+        assertEquals(0, journal.getRecordCount());
+        assertTrue(journal.isOpen());
+    }
+
+    @Test
+    void testReplayStopsAtTornRecord() throws IOException {
+        journal.append(TaskJournal.record(TaskJournal.Operation.REMOVE, 1, null));
+        journal.close();
+        try (FileWriter writer = new FileWriter(file, true)) {
+            writer.write("{\"op\":\"ADD\",\"index\":1,\"ta");
+        }
+
+        assertEquals(1, journal.replay(tasks, 42));
+        assertTrue(journal.isDamaged());
+        assertFalse(journal.isOpen());
+        assertEquals(1, tasks.size());
+        assertEquals("first", tasks.get(0).getDescription());
+    }
+
+    @Test
+    void testReplayStopsAtRecordOutOfRange() throws IOException {
+        journal.append(TaskJournal.record(TaskJournal.Operation.REMOVE, 5, null));
+        journal.close();
+
+        assertEquals(0, journal.replay(tasks, 42));
+        assertTrue(journal.isDamaged());
+        assertEquals(2, tasks.size());
+    }
+}
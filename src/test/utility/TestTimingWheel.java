@@ -0,0 +1,81 @@
+package utility;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTimingWheel {
+    private static final long TICK = 1000;
+    private static final long START = 1546300800000L;
+    private TimingWheel<String> wheel;
+    private List<String> expired;
+
+    @BeforeEach
+    void runBefore() {
+        wheel = new TimingWheel<>(TICK, START);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    void testExpiresOnTheTickOfItsDeadline() {
+        wheel.schedule("a", START + 3 * TICK);
+        wheel.schedule("b", START + 2 * TICK + 1);
+        wheel.advance(START + 3 * TICK - 1, expired::add);
+        assertEquals(Arrays.asList(), expired);
+        wheel.advance(START + 3 * TICK, expired::add);
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(Arrays.asList("a", "b")));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testPastDeadlineExpiresOnNextTick() {
+        wheel.schedule("past", START - 10 * TICK);
+        wheel.advance(START, expired::add);
+        assertEquals(Arrays.asList(), expired);
+        wheel.advance(START + TICK, expired::add);
+        assertEquals(Arrays.asList("past"), expired);
+    }
+
+    @Test
+    void testCascadesThroughLevelsInOrder() {
+        long[] offsets = {1, 63, 64, 65, 4095, 4096, 4097, 300000, 16777216, 20000000};
+        for (int i = offsets.length - 1; i >= 0; i--) {
+            wheel.schedule("t" + offsets[i], START + offsets[i] * TICK);
+        }
+        List<String> expected = new ArrayList<>();
+        for (long offset : offsets) {
+            wheel.advance(START + (offset - 1) * TICK, expired::add);
+            assertEquals(expected, expired);
+            wheel.advance(START + offset * TICK, expired::add);
+            expected.add("t" + offset);
+            assertEquals(expected, expired);
+        }
+    }
+
+    @Test
+    void testBeyondTopLevel() {
+        long far = 1L << (TimingWheel.SLOT_BITS * TimingWheel.LEVELS);
+        wheel.schedule("far", START + (far + 5) * TICK);
+        wheel.advance(START + (far + 4) * TICK, expired::add);
+        assertEquals(Arrays.asList(), expired);
+        wheel.advance(START + (far + 5) * TICK, expired::add);
+        assertEquals(Arrays.asList("far"), expired);
+    }
+
+    @Test
+    void testCancel() {
+        TimingWheel.Timer<String> timer = wheel.schedule("a", START + 100 * TICK);
+        wheel.schedule("b", START + 100 * TICK);
+        assertTrue(wheel.cancel(timer));
+        assertFalse(wheel.cancel(timer));
+        assertEquals(1, wheel.size());
+        wheel.advance(START + 100 * TICK, expired::add);
+        assertEquals(Arrays.asList("b"), expired);
+    }
+}